@@ -0,0 +1,154 @@
+package com.cds.automation.bench;
+
+import com.cds.automation.core.HttpSubmitter;
+import com.cds.automation.core.ProcessingResult;
+import com.cds.automation.http.HtmlForm;
+import com.cds.automation.http.WebFormsClient;
+import com.cds.automation.model.DeclarationData;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Runs the HTTP engine through every form flow against {@link StubPortal}: the
+ * login redirect and its session cookie, a search, the confirmation dialogs,
+ * filling and submitting the form for an ADD, an UPDATE and a DELETE without
+ * posting its disabled controls, a login
+ * again after the session expired and a refused password. Each step checks
+ * what the portal ended up storing, and the run stops at the first mismatch.
+ *
+ * <pre>
+ * mvn install
+ * mvn -f benchmarks/pom.xml compile exec:java -Dbenchmark.main=com.cds.automation.bench.HttpFormFlowCheck \
+ *     -Dexec.args="--latency 20"
+ * </pre>
+ */
+public class HttpFormFlowCheck {
+    private static final String USERNAME = "agente";
+    private static final String PASSWORD = "segredo";
+    private static final String[] SENDER = {
+        "Loja Exemplo", "Rua do Comércio 1", "", "Lisboa", "", "PT", "+351 210 000 000"};
+
+    private final StubPortal portal;
+    private final String loginUrl;
+    private HttpSubmitter submitter;
+
+    private HttpFormFlowCheck(StubPortal portal, String loginUrl) {
+        this.portal = portal;
+        this.loginUrl = loginUrl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int latency = 20;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--latency": latency = Integer.parseInt(args[++i]); break;
+                default: throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+
+        try (StubPortal portal = new StubPortal(latency)
+                .account(USERNAME, PASSWORD)
+                .declaration("UPD-1", "Maria Antiga", "Livros")
+                .declaration("DEL-1", "Jorge Apagado", "Discos")) {
+            HttpFormFlowCheck check = new HttpFormFlowCheck(portal, portal.start());
+            System.out.printf(Locale.ROOT, "%-40s %8s %9s%n", "flow", "ms", "requests");
+            check.run("unauthenticated page redirects to login", check::redirectsToLogin);
+            check.run("login sets the session cookie", check::logsIn);
+            check.run("ADD fills and submits a new declaration", check::adds);
+            check.run("UPDATE confirms, edits and submits", check::updates);
+            check.run("DELETE confirms twice and removes", check::deletes);
+            check.run("expired session logs in again", check::relogsIn);
+            check.run("wrong password is refused", check::refusesPassword);
+            check.submitter.close();
+        }
+        System.out.println("All form flows passed");
+    }
+
+    private void run(String flow, Step step) throws Exception {
+        int requests = portal.getRequests();
+        long started = System.nanoTime();
+        step.run();
+        System.out.printf(Locale.ROOT, "%-40s %8.1f %9d%n",
+            flow, (System.nanoTime() - started) / 1e6, portal.getRequests() - requests);
+    }
+
+    private void redirectsToLogin() throws Exception {
+        String home = loginUrl.replace(StubPortal.LOGIN_PATH, StubPortal.HOME_PATH);
+        HtmlForm page = new WebFormsClient(10).get(home);
+        expect(page.hasElement("txtUsername"), "a request without a session to land on the login page, got "
+            + page.getUrl());
+    }
+
+    private void logsIn() {
+        submitter = new HttpSubmitter(new String[]{USERNAME, PASSWORD, loginUrl}, SENDER);
+        submitter.login();
+        expect(portal.getLogins() == 1, "one login, got " + portal.getLogins());
+    }
+
+    private void adds() {
+        process(declaration("ADD-1", "Ana Nova", "Camisolas", "ADD"));
+        Map<String, String> stored = portal.getDeclaration("ADD-1");
+        expect(stored != null, "ADD-1 to be stored");
+        expectStored("ADD-1", "Ana Nova", "Camisolas");
+        expect(SENDER[0].equals(stored.get(StubPortal.FIELDS.get(0))), "the sender to be filled in, got " + stored);
+    }
+
+    private void updates() {
+        process(declaration("UPD-1", "Maria Nova", "Livros usados", "UPDATE"));
+        expectStored("UPD-1", "Maria Nova", "Livros usados");
+    }
+
+    private void deletes() {
+        process(declaration("DEL-1", "", "", "DELETE"));
+        expect(portal.getDeclaration("DEL-1") == null, "DEL-1 to be deleted");
+    }
+
+    private void relogsIn() {
+        portal.expireSessions();
+        process(declaration("ADD-2", "Rui Depois", "Sapatos", "ADD"));
+        expectStored("ADD-2", "Rui Depois", "Sapatos");
+        expect(portal.getLogins() == 2, "a second login, got " + portal.getLogins());
+    }
+
+    private void refusesPassword() {
+        HttpSubmitter refused = new HttpSubmitter(new String[]{USERNAME, "errada", loginUrl}, SENDER);
+        try {
+            refused.login();
+        } catch (IllegalStateException e) {
+            return;
+        } finally {
+            refused.close();
+        }
+        throw new IllegalStateException("Login with a wrong password succeeded");
+    }
+
+    private void process(DeclarationData declaration) {
+        ProcessingResult result = submitter.process(declaration);
+        expect(result.isSuccess(), declaration.getAction() + " of " + declaration.getReferenceId()
+            + " to succeed, got " + result.getErrorMessage());
+    }
+
+    private void expectStored(String referenceId, String recipientName, String description) {
+        Map<String, String> stored = portal.getDeclaration(referenceId);
+        expect(stored != null && recipientName.equals(stored.get(StubPortal.RECIPIENT_NAME))
+                && description.equals(stored.get(StubPortal.ITEM_DESCRIPTION)),
+            referenceId + " stored as " + recipientName + "/" + description + ", got " + stored);
+    }
+
+    private static DeclarationData declaration(String referenceId, String recipientName, String description,
+                                               String action) {
+        return new DeclarationData(referenceId, "Rua Nova 2", "", "Porto", "", "4000-001", "PT", recipientName,
+            "", "", description, "1", "0.5", "25.00", "EUR", action);
+    }
+
+    private static void expect(boolean condition, String expectation) {
+        if (!condition) {
+            throw new IllegalStateException("Expected " + expectation);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,55 @@
+package com.cds.automation.bench;
+
+import com.cds.automation.model.DeclarationData;
+import com.cds.automation.util.ExcelReader;
+import com.cds.automation.util.StreamingExcelReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/** End-to-end workbook ingestion: open, read every declaration row, close. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class IngestionBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int rows;
+
+    private String path;
+
+    @Setup(Level.Trial)
+    public void createWorkbook() throws Exception {
+        path = WorkbookFixture.workbook(rows).toString();
+    }
+
+    @Benchmark
+    public List<DeclarationData> readDeclarations() throws Exception {
+        try (ExcelReader reader = new ExcelReader(path)) {
+            return reader.readDeclarations();
+        }
+    }
+
+    @Benchmark
+    public void streamDeclarations(Blackhole blackhole) throws Exception {
+        try (StreamingExcelReader reader = new StreamingExcelReader(path);
+             Stream<DeclarationData> declarations = reader.streamDeclarations()) {
+            declarations.forEach(blackhole::consume);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.cds.automation.bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import java.io.File;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Entry point of the benchmark jar. Accepts the usual JMH command line and, when
+ * no result format is given, writes the results as JSON to
+ * {@code results/jmh-<timestamp>.json} so runs can be compared over time.
+ */
+public class JmhRunner {
+    private static final DateTimeFormatter FILE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListProfilers()
+                || commandLine.shouldListResultFormats() || commandLine.shouldListWithParams()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+        if (!commandLine.getResultFormat().hasValue() && !commandLine.getResult().hasValue()) {
+            File results = new File("results");
+            results.mkdirs();
+            options.resultFormat(ResultFormatType.JSON)
+                .result(new File(results, "jmh-" + LocalDateTime.now().format(FILE_STAMP) + ".json").getPath());
+        }
+        new Runner(options.build()).run();
+    }
+}
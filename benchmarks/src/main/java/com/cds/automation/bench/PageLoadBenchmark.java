@@ -0,0 +1,182 @@
+package com.cds.automation.bench;
+
+import com.cds.automation.metrics.LatencyHistogram;
+import com.cds.automation.ui.ChromeDriverManager;
+import com.cds.automation.ui.WebDriverConfig;
+import com.cds.automation.ui.WebElementWait;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares page-load latency of the default and the lean browser profile on a
+ * locally served copy of the declaration form. Static assets are served with an
+ * artificial delay and no caching, standing in for the round trips to the real
+ * site, so the difference comes from what each profile downloads.
+ *
+ * <pre>
+ * mvn install
+ * mvn -f benchmarks/pom.xml compile exec:java -Dexec.args="--iterations 20 --asset-delay 80"
+ * </pre>
+ */
+public class PageLoadBenchmark {
+    private static final String FORM_PATH = "/Declaration.aspx";
+    private static final By READY_MARKER = By.id("ContentPlaceHolder1_txtItemId");
+
+    private final int assetDelayMillis;
+    private final byte[] formHtml;
+    private final byte[] binaryAsset = new byte[64 * 1024];
+    private final AtomicInteger requests = new AtomicInteger();
+    private HttpServer server;
+
+    private PageLoadBenchmark(int assetDelayMillis) throws IOException {
+        this.assetDelayMillis = assetDelayMillis;
+        this.formHtml = readResource("/form/Declaration.html");
+        new Random(42).nextBytes(binaryAsset);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int iterations = 20;
+        int warmup = 3;
+        int assetDelay = 80;
+        boolean headless = true;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--iterations": iterations = Integer.parseInt(args[++i]); break;
+                case "--warmup": warmup = Integer.parseInt(args[++i]); break;
+                case "--asset-delay": assetDelay = Integer.parseInt(args[++i]); break;
+                case "--headful": headless = false; break;
+                default: throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+
+        PageLoadBenchmark benchmark = new PageLoadBenchmark(assetDelay);
+        String url = benchmark.start();
+        try {
+            System.out.printf(Locale.ROOT, "%-8s %6s %9s %9s %9s %9s %10s%n",
+                "profile", "loads", "mean ms", "p50 ms", "p95 ms", "max ms", "requests");
+            benchmark.measure("default", false, url, headless, warmup, iterations);
+            benchmark.measure("lean", true, url, headless, warmup, iterations);
+        } finally {
+            benchmark.server.stop(0);
+        }
+    }
+
+    private void measure(String profile, boolean lean, String url, boolean headless, int warmup, int iterations) {
+        WebDriver driver = ChromeDriverManager.createDriver(headless, lean);
+        try {
+            for (int i = 0; i < warmup; i++) {
+                load(driver, url);
+            }
+
+            LatencyHistogram latency = new LatencyHistogram();
+            requests.set(0);
+            for (int i = 0; i < iterations; i++) {
+                driver.get("about:blank");
+                long started = System.nanoTime();
+                load(driver, url);
+                latency.record((System.nanoTime() - started) / 1000);
+            }
+            System.out.printf(Locale.ROOT, "%-8s %6d %9.1f %9.1f %9.1f %9.1f %10.1f%n",
+                profile, latency.getCount(), latency.getMeanMicros() / 1000.0,
+                latency.getPercentileMicros(50) / 1000.0, latency.getPercentileMicros(95) / 1000.0,
+                latency.getMaxMicros() / 1000.0, requests.get() / (double) iterations);
+        } finally {
+            WebDriverConfig.cleanupDriver(driver);
+        }
+    }
+
+    /** Navigates to the form and waits until it can be used, the same way the submitter does. */
+    private static void load(WebDriver driver, String url) {
+        driver.get(url);
+        WebElementWait.waitForClickable(driver, READY_MARKER);
+    }
+
+    private String start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        return "http://127.0.0.1:" + server.getAddress().getPort() + FORM_PATH;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        String path = exchange.getRequestURI().getPath();
+        try {
+            if (path.equals(FORM_PATH)) {
+                respond(exchange, 200, "text/html; charset=utf-8", formHtml);
+            } else if (path.startsWith("/static/")) {
+                Thread.sleep(assetDelayMillis);
+                respond(exchange, 200, contentType(path), assetBody(path));
+            } else {
+                respond(exchange, 404, "text/plain", new byte[0]);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private byte[] assetBody(String path) {
+        if (path.endsWith(".css")) {
+            return ("@font-face { font-family: Body; src: url(/static/fonts/body.woff2); }\n"
+                + "@font-face { font-family: Title; src: url(/static/fonts/title.woff2); }\n"
+                + "body { font-family: Body, sans-serif; background: url(/static/img/background.jpg); }\n"
+                + "legend { font-family: Title, serif; }\n"
+                + "input[type=text] { width: 280px; }\n").getBytes(StandardCharsets.UTF_8);
+        }
+        if (path.endsWith(".js")) {
+            return "window.dataLayer = window.dataLayer || [];".getBytes(StandardCharsets.UTF_8);
+        }
+        return binaryAsset;
+    }
+
+    private static String contentType(String path) {
+        if (path.endsWith(".css")) return "text/css";
+        if (path.endsWith(".js")) return "application/javascript";
+        if (path.endsWith(".woff2")) return "font/woff2";
+        if (path.endsWith(".png") || path.endsWith(".ico")) return "image/png";
+        return "image/jpeg";
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, byte[] body)
+            throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private static byte[] readResource(String name) throws IOException {
+        try (InputStream in = PageLoadBenchmark.class.getResourceAsStream(name)) {
+            if (in == null) {
+                throw new IOException("Missing benchmark resource " + name);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                out.write(chunk, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.cds.automation.bench;
+
+import com.cds.automation.metrics.LatencyHistogram;
+import com.cds.automation.ui.ChromeDriverManager;
+import com.cds.automation.ui.WebDriverConfig;
+import com.cds.automation.ui.WebElementHandler;
+import com.cds.automation.ui.WebElementWait;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+/**
+ * Compares the old fixed-window popup probe (wait up to 2 s for the confirmation
+ * button, then sleep 300 ms after confirming) with the observer-based detection
+ * in {@link WebElementHandler#handlePopup}, on a local page whose search answers
+ * after a configurable delay and shows the dialog only when asked to.
+ *
+ * <pre>
+ * mvn install
+ * mvn -f benchmarks/pom.xml compile exec:java -Dbenchmark.main=com.cds.automation.bench.PopupBenchmark \
+ *     -Dexec.args="--iterations 20 --delay 120"
+ * </pre>
+ */
+public class PopupBenchmark {
+    private static final By OK_BUTTON = By.id("ContentPlaceHolder1_btnOk");
+    private static final By CONFIRM_BUTTON = By.xpath("//button[text()='Confirmar e continuar']");
+
+    public static void main(String[] args) throws Exception {
+        int iterations = 20;
+        int delay = 120;
+        boolean headless = true;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--iterations": iterations = Integer.parseInt(args[++i]); break;
+                case "--delay": delay = Integer.parseInt(args[++i]); break;
+                case "--headful": headless = false; break;
+                default: throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+
+        byte[] page = readResource("/form/Popup.html");
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> respond(exchange, page));
+        server.start();
+        String base = "http://127.0.0.1:" + server.getAddress().getPort() + "/Popup.aspx?delay=" + delay;
+
+        WebDriver driver = ChromeDriverManager.createDriver(headless, false);
+        try {
+            System.out.printf(Locale.ROOT, "%-10s %-8s %6s %9s %9s %9s %9s%n",
+                "probe", "popup", "clicks", "mean ms", "p50 ms", "p95 ms", "max ms");
+            for (boolean popup : new boolean[]{false, true}) {
+                String url = base + "&popup=" + (popup ? 1 : 0);
+                measure(driver, url, "fixed", popup, iterations, PopupBenchmark::fixedWindowProbe);
+                measure(driver, url, "observer", popup, iterations, WebElementHandler::handlePopup);
+            }
+        } finally {
+            WebDriverConfig.cleanupDriver(driver);
+            server.stop(0);
+        }
+    }
+
+    private static void measure(WebDriver driver, String url, String probe, boolean popup, int iterations,
+                                Predicate<WebDriver> handlePopup) {
+        LatencyHistogram latency = new LatencyHistogram();
+        for (int i = 0; i < iterations + 2; i++) {
+            driver.get(url);
+            long started = System.nanoTime();
+            WebElementWait.click(driver, driver.findElement(OK_BUTTON));
+            if (handlePopup.test(driver) != popup) {
+                throw new IllegalStateException(probe + " probe reported the dialog wrongly on " + url);
+            }
+            if (i >= 2) { // the first two clicks warm up the driver
+                latency.record((System.nanoTime() - started) / 1000);
+            }
+        }
+        System.out.printf(Locale.ROOT, "%-10s %-8s %6d %9.1f %9.1f %9.1f %9.1f%n",
+            probe, popup ? "yes" : "no", latency.getCount(), latency.getMeanMicros() / 1000.0,
+            latency.getPercentileMicros(50) / 1000.0, latency.getPercentileMicros(95) / 1000.0,
+            latency.getMaxMicros() / 1000.0);
+    }
+
+    /** The probe as it was before the observer-based detection. */
+    private static boolean fixedWindowProbe(WebDriver driver) {
+        WebElement confirm;
+        try {
+            confirm = new WebDriverWait(driver, Duration.ofSeconds(2))
+                .until(ExpectedConditions.elementToBeClickable(CONFIRM_BUTTON));
+        } catch (TimeoutException e) {
+            return false;
+        }
+        confirm.click();
+        try {
+            Thread.sleep(300);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return true;
+    }
+
+    private static void respond(HttpExchange exchange, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static byte[] readResource(String name) throws IOException {
+        try (InputStream in = PopupBenchmark.class.getResourceAsStream(name)) {
+            if (in == null) {
+                throw new IOException("Missing benchmark resource " + name);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                out.write(chunk, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+}
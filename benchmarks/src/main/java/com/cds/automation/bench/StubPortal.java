@@ -0,0 +1,352 @@
+package com.cds.automation.bench;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A stand-in for the customs portal's WebForms pages, served locally: a login
+ * page that sets a session cookie and redirects, and one declaration page that
+ * answers the search, edit, delete and submit postbacks the way the site does,
+ * with a "Confirmar e continuar" dialog before showing an existing declaration,
+ * deleting it or saving it. Declarations are kept in memory by reference id.
+ *
+ * Each postback must carry the __VIEWSTATE of the page it was made from, so a
+ * client that posts a stale page gets an error, as it would on the site. The
+ * declaration form also has a disabled input, select and textarea, which a
+ * browser never posts; a submit that carries any of them is refused.
+ */
+public final class StubPortal implements AutoCloseable {
+    static final String LOGIN_PATH = "/Login.aspx";
+    static final String HOME_PATH = "/Default.aspx";
+    static final String SESSION_COOKIE = "ASP.NET_SessionId";
+    static final String CONFIRM_TEXT = "Confirmar e continuar";
+
+    private static final String PREFIX = "ContentPlaceHolder1_";
+    private static final String FORM = PREFIX + "ctl01_ucDeclaration_";
+    /** Every input of the declaration form, by id. */
+    static final List<String> FIELDS = Collections.unmodifiableList(Arrays.asList(
+        FORM + "txtSenderName", FORM + "txtSenderAddressLine1", FORM + "txtSenderAddressLine2",
+        FORM + "txtSenderCity", FORM + "txtSenderState", FORM + "txtSenderCountry", FORM + "txtSenderTelephone",
+        FORM + "txtRecipientName", FORM + "txtRecipientAddressLine1", FORM + "txtRecipientAddressLine2",
+        FORM + "txtRecipientZIP", FORM + "txtRecipientCity", FORM + "txtRecipientState",
+        FORM + "txtRecipientCountry", FORM + "txtRecipientEmail", FORM + "txtRecipientTelephone",
+        FORM + "rptCP_txtCPNumber_0", FORM + "rptCP_txtCPDesc_0", FORM + "rptCP_txtCPNetWeight_0",
+        FORM + "rptCP_txtCPAmount_0", FORM + "rptCP_txtCPCurrency_0"));
+    static final String RECIPIENT_NAME = FORM + "txtRecipientName";
+    static final String ITEM_DESCRIPTION = FORM + "rptCP_txtCPDesc_0";
+    private static final String DISABLED_INPUT = FORM + "txtDeclarationNumber";
+    private static final String DISABLED_SELECT = FORM + "ddlOffice";
+    private static final String DISABLED_TEXTAREA = FORM + "txtNotes";
+
+    private static final String SEARCH_FIELD = PREFIX + "txtItemId";
+    private static final String OK = PREFIX + "btnOk";
+    private static final String EDIT = PREFIX + "btnEdit";
+    private static final String DELETE = PREFIX + "btnDelete";
+    private static final String SUBMIT = PREFIX + "btnSubmit";
+    private static final String CONFIRM = PREFIX + "btnConfirm";
+
+    private final Map<String, String> passwords = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, String>> declarations = new ConcurrentHashMap<>();
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger logins = new AtomicInteger();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final int latencyMillis;
+    private final ExecutorService handlers = Executors.newCachedThreadPool();
+    private HttpServer server;
+
+    /** Each request waits {@code latencyMillis} first, standing in for the round trip to the site. */
+    public StubPortal(int latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    /** What the portal remembers between postbacks of one logged-in session. */
+    private static final class Session {
+        final String username;
+        int viewState;
+        String itemId;
+        // The postback the confirmation dialog on screen will complete: "show", "delete" or "save"
+        String pending;
+        Map<String, String> posted;
+
+        Session(String username) {
+            this.username = username;
+        }
+    }
+
+    public StubPortal account(String username, String password) {
+        passwords.put(username, password);
+        return this;
+    }
+
+    /** Stores a declaration as if it had been submitted earlier. */
+    public StubPortal declaration(String referenceId, String recipientName, String description) {
+        Map<String, String> values = new HashMap<>();
+        values.put(RECIPIENT_NAME, recipientName);
+        values.put(ITEM_DESCRIPTION, description);
+        declarations.put(referenceId, values);
+        return this;
+    }
+
+    /** Starts serving and returns the login page URL. */
+    public String start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(handlers);
+        server.start();
+        return "http://127.0.0.1:" + server.getAddress().getPort() + LOGIN_PATH;
+    }
+
+    /** Drops every session, as the site does when it restarts or sessions time out. */
+    public void expireSessions() {
+        sessions.clear();
+    }
+
+    public Map<String, String> getDeclaration(String referenceId) {
+        return declarations.get(referenceId);
+    }
+
+    public int getLogins() { return logins.get(); }
+    public int getRequests() { return requests.get(); }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+        }
+        handlers.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try {
+            if (latencyMillis > 0) {
+                Thread.sleep(latencyMillis);
+            }
+            Map<String, String> form = "POST".equals(exchange.getRequestMethod())
+                ? parseForm(readBody(exchange)) : Collections.emptyMap();
+            String path = exchange.getRequestURI().getPath();
+            if (path.equals(LOGIN_PATH)) {
+                login(exchange, form);
+            } else if (path.equals(HOME_PATH)) {
+                Session session = sessions.get(cookie(exchange));
+                if (session == null) {
+                    redirect(exchange, LOGIN_PATH + "?ReturnUrl=%2fDefault.aspx");
+                } else {
+                    declarationPage(exchange, session, form);
+                }
+            } else {
+                respond(exchange, 404, "Not found");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void login(HttpExchange exchange, Map<String, String> form) throws IOException {
+        String username = form.get("txtUsername");
+        if (username != null && form.get("txtPassword") != null
+                && form.get("txtPassword").equals(passwords.get(username)) && form.containsKey("btnLogin")) {
+            String id = UUID.randomUUID().toString();
+            sessions.put(id, new Session(username));
+            logins.incrementAndGet();
+            exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "=" + id + "; path=/; HttpOnly");
+            redirect(exchange, HOME_PATH);
+            return;
+        }
+        String error = username == null ? "" : "<p class=\"error\">Utilizador ou palavra-passe incorretos.</p>";
+        respond(exchange, 200, "<form method=\"post\" action=\"." + LOGIN_PATH + "\" id=\"form1\">" + error
+            + "<input name=\"txtUsername\" type=\"text\" id=\"txtUsername\">"
+            + "<input name=\"txtPassword\" type=\"password\" id=\"txtPassword\">"
+            + "<input type=\"submit\" name=\"btnLogin\" value=\"Entrar\" id=\"btnLogin\">"
+            + "</form>");
+    }
+
+    private void declarationPage(HttpExchange exchange, Session session, Map<String, String> form)
+            throws IOException {
+        synchronized (session) {
+            if (!form.isEmpty() && !String.valueOf(session.viewState).equals(form.get("__VIEWSTATE"))) {
+                respond(exchange, 500, "Invalid viewstate");
+                return;
+            }
+            StringBuilder body = new StringBuilder();
+            if (form.containsKey(name(OK))) {
+                session.itemId = form.getOrDefault(name(SEARCH_FIELD), "").trim();
+                if (declarations.containsKey(session.itemId)) {
+                    session.pending = "show";
+                    dialog(body, "Já existe uma declaração com este identificador.");
+                } else {
+                    session.pending = null;
+                    fields(body, Collections.emptyMap(), false);
+                    button(body, SUBMIT, "Submeter");
+                }
+            } else if (form.containsKey(name(CONFIRM)) && session.pending != null) {
+                confirm(body, session);
+            } else if (form.containsKey(name(EDIT)) && declarations.containsKey(session.itemId)) {
+                fields(body, declarations.get(session.itemId), false);
+                button(body, SUBMIT, "Submeter");
+            } else if (form.containsKey(name(DELETE)) && declarations.containsKey(session.itemId)) {
+                session.pending = "delete";
+                dialog(body, "Apagar a declaração " + session.itemId + "?");
+            } else if (form.containsKey(name(SUBMIT)) && session.itemId != null) {
+                for (String disabled : Arrays.asList(DISABLED_INPUT, DISABLED_SELECT, DISABLED_TEXTAREA)) {
+                    if (form.containsKey(name(disabled))) {
+                        respond(exchange, 500, "Disabled control posted: " + disabled);
+                        return;
+                    }
+                }
+                session.posted = new HashMap<>();
+                for (String field : FIELDS) {
+                    session.posted.put(field, form.getOrDefault(name(field), ""));
+                }
+                session.pending = "save";
+                dialog(body, "Submeter a declaração " + session.itemId + "?");
+            } else if (!form.isEmpty()) {
+                respond(exchange, 500, "Unexpected postback " + form.keySet());
+                return;
+            }
+            session.viewState++;
+            respond(exchange, 200, page(session, body));
+        }
+    }
+
+    private void confirm(StringBuilder body, Session session) {
+        String pending = session.pending;
+        session.pending = null;
+        switch (pending) {
+            case "show":
+                fields(body, declarations.get(session.itemId), true);
+                button(body, EDIT, "Editar");
+                button(body, DELETE, "Apagar");
+                break;
+            case "delete":
+                declarations.remove(session.itemId);
+                body.append("<p class=\"message\">Declaração apagada.</p>");
+                break;
+            case "save":
+                declarations.put(session.itemId, session.posted);
+                body.append("<p class=\"message\">Declaração submetida.</p>");
+                break;
+            default:
+                throw new IllegalStateException(pending);
+        }
+    }
+
+    private static String page(Session session, CharSequence content) {
+        return "<form method=\"post\" action=\"." + HOME_PATH + "\" id=\"form1\">"
+            + "<input type=\"hidden\" name=\"__VIEWSTATE\" id=\"__VIEWSTATE\" value=\"" + session.viewState + "\">"
+            + "<input type=\"hidden\" name=\"__EVENTTARGET\" id=\"__EVENTTARGET\" value=\"\">"
+            + "<input type=\"hidden\" name=\"__EVENTARGUMENT\" id=\"__EVENTARGUMENT\" value=\"\">"
+            + "<span id=\"lblUser\">" + escape(session.username) + "</span>"
+            + "<input name=\"" + name(SEARCH_FIELD) + "\" type=\"text\" id=\"" + SEARCH_FIELD + "\">"
+            + "<input type=\"submit\" name=\"" + name(OK) + "\" value=\"OK\" id=\"" + OK + "\">"
+            + content + "</form>";
+    }
+
+    private static void fields(StringBuilder body, Map<String, String> values, boolean readOnly) {
+        for (String field : FIELDS) {
+            body.append("<input type=\"text\" name=\"").append(name(field)).append("\" id=\"").append(field)
+                .append("\" value=\"").append(escape(values.getOrDefault(field, ""))).append('"')
+                .append(readOnly ? " readonly>" : ">");
+        }
+        body.append("<input type=\"text\" name=\"").append(name(DISABLED_INPUT)).append("\" id=\"")
+            .append(DISABLED_INPUT).append("\" value=\"DN-0001\" disabled>")
+            .append("<select name=\"").append(name(DISABLED_SELECT)).append("\" id=\"").append(DISABLED_SELECT)
+            .append("\" disabled=\"disabled\"><option value=\"LIS\" selected>Lisboa</option></select>")
+            .append("<textarea name=\"").append(name(DISABLED_TEXTAREA)).append("\" id=\"").append(DISABLED_TEXTAREA)
+            .append("\" disabled>Sem notas</textarea>");
+    }
+
+    private static void button(StringBuilder body, String id, String text) {
+        body.append("<input type=\"submit\" name=\"").append(name(id)).append("\" value=\"").append(text)
+            .append("\" id=\"").append(id).append("\">");
+    }
+
+    private static void dialog(StringBuilder body, String message) {
+        body.append("<div id=\"dialog\"><p>").append(escape(message)).append("</p><button type=\"submit\" name=\"")
+            .append(name(CONFIRM)).append("\" value=\"\">").append(CONFIRM_TEXT).append("</button></div>");
+    }
+
+    /** The control name ASP.NET posts for a client id. */
+    private static String name(String id) {
+        return "ctl00$" + id.replace('_', '$');
+    }
+
+    private static String cookie(HttpExchange exchange) {
+        List<String> headers = exchange.getRequestHeaders().get("Cookie");
+        if (headers != null) {
+            for (String header : headers) {
+                for (String cookie : header.split(";")) {
+                    String[] pair = cookie.trim().split("=", 2);
+                    if (pair.length == 2 && pair[0].equals(SESSION_COOKIE)) {
+                        return pair[1];
+                    }
+                }
+            }
+        }
+        return "";
+    }
+
+    private static Map<String, String> parseForm(String body) throws UnsupportedEncodingException {
+        Map<String, String> form = new LinkedHashMap<>();
+        for (String pair : body.split("&")) {
+            if (pair.isEmpty()) continue;
+            int equals = pair.indexOf('=');
+            String name = URLDecoder.decode(equals < 0 ? pair : pair.substring(0, equals), "UTF-8");
+            form.put(name, equals < 0 ? "" : URLDecoder.decode(pair.substring(equals + 1), "UTF-8"));
+        }
+        return form;
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                out.write(chunk, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.US_ASCII);
+        }
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace("\"", "&quot;");
+    }
+
+    private static void redirect(HttpExchange exchange, String location) throws IOException {
+        exchange.getResponseHeaders().set("Location", location);
+        exchange.sendResponseHeaders(302, -1);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String html) throws IOException {
+        byte[] body = ("<!DOCTYPE html><html><head><meta charset=\"utf-8\"></head><body>" + html + "</body></html>")
+            .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.cds.automation.bench;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Generates declaration workbooks in the layout the readers expect: an "Other"
+ * sheet with credentials, sender and action, and a "Data" sheet with one header
+ * row plus the requested number of declaration rows. Files are cached in the
+ * temp directory so forks and repeated runs do not regenerate them.
+ */
+public final class WorkbookFixture {
+    private static final int COLUMNS = 23;
+    private static final String[] COUNTRIES = {"PT", "ES", "FR", "DE", "IT", "NL", "BE", "US"};
+
+    private WorkbookFixture() {
+    }
+
+    public static Path workbook(int rows) throws IOException {
+        Path file = Paths.get(System.getProperty("java.io.tmpdir"), "cds-bench-v1-" + rows + ".xlsx");
+        if (Files.exists(file)) {
+            return file;
+        }
+
+        Path temp = Files.createTempFile(file.getParent(), "cds-bench", ".xlsx");
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(1000);
+             OutputStream out = Files.newOutputStream(temp)) {
+            writeOtherSheet(workbook.createSheet("Other"));
+            writeDataSheet(workbook.createSheet("Data"), rows);
+            workbook.write(out);
+            workbook.dispose();
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        return file;
+    }
+
+    private static void writeOtherSheet(Sheet sheet) {
+        Row credentials = sheet.createRow(1);
+        credentials.createCell(0).setCellValue("bench-user");
+        credentials.createCell(1).setCellValue("bench-password");
+        credentials.createCell(2).setCellValue("http://127.0.0.1/Login.aspx");
+
+        Row sender = sheet.createRow(4);
+        sender.createCell(2).setCellValue("Benchmark Sender Lda");
+        sender.createCell(3).setCellValue("Rua do Benchmark 1");
+        sender.createCell(4).setCellValue("2 Esq");
+        sender.createCell(5).setCellValue("Lisboa");
+        sender.createCell(6).setCellValue("Lisboa");
+        sender.createCell(7).setCellValue(351210000000d);
+        sender.createCell(8).setCellValue("PT");
+
+        sheet.createRow(7).createCell(2).setCellValue("ADD");
+    }
+
+    private static void writeDataSheet(Sheet sheet, int rows) {
+        Row header = sheet.createRow(0);
+        for (int column = 0; column < COLUMNS; column++) {
+            header.createCell(column).setCellValue("Column " + column);
+        }
+
+        for (int i = 1; i <= rows; i++) {
+            Row row = sheet.createRow(i);
+            for (int column = 0; column < COLUMNS; column++) {
+                switch (column) {
+                    case 0:
+                        row.createCell(column).setCellValue(String.format("RR%09dPT", i));
+                        break;
+                    case 9:
+                        row.createCell(column).setCellValue(910000000d + i);
+                        break;
+                    case 13:
+                        row.createCell(column).setCellValue(COUNTRIES[i % COUNTRIES.length]);
+                        break;
+                    case 16:
+                        row.createCell(column).setCellValue(1 + i % 5);
+                        break;
+                    case 20:
+                        row.createCell(column).setCellValue(0.125 + (i % 40) * 0.05);
+                        break;
+                    case 21:
+                        row.createCell(column).setCellValue(9.99 + (i % 200) * 1.5);
+                        break;
+                    case 22:
+                        row.createCell(column).setCellValue("EUR");
+                        break;
+                    default:
+                        row.createCell(column).setCellValue("Value " + column + "-" + (i % 997));
+                }
+            }
+        }
+    }
+}
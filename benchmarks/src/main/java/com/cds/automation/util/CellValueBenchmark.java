@@ -0,0 +1,110 @@
+package com.cds.automation.util;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.FormulaEvaluator;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-cell conversion cost of {@link ExcelReader#getCellValue}. The numeric case
+ * is also measured with several threads calling it at once; formula cells are
+ * measured without cached results, so each one is evaluated.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CellValueBenchmark {
+    private static final int CELLS = 1024;
+
+    private XSSFWorkbook workbook;
+    private FormulaEvaluator evaluator;
+    private Cell[] strings;
+    private Cell[] numerics;
+    private Cell[] formulas;
+
+    @Setup(Level.Trial)
+    public void createCells() {
+        workbook = new XSSFWorkbook();
+        Sheet sheet = workbook.createSheet("Data");
+        Row stringRow = sheet.createRow(0);
+        Row numericRow = sheet.createRow(1);
+        Row formulaRow = sheet.createRow(2);
+        Random random = new Random(42);
+        strings = new Cell[CELLS];
+        numerics = new Cell[CELLS];
+        formulas = new Cell[CELLS];
+        for (int i = 0; i < CELLS; i++) {
+            strings[i] = stringRow.createCell(i);
+            strings[i].setCellValue("Value " + random.nextInt(100000));
+            numerics[i] = numericRow.createCell(i);
+            // Mix of integers, quantities and prices like the Data sheet holds
+            double value = i % 3 == 0 ? random.nextInt(100000) : random.nextInt(1000000) / 1000.0;
+            numerics[i].setCellValue(value);
+            // No cached results: every formula goes through the shared evaluator
+            formulas[i] = formulaRow.createCell(i);
+            formulas[i].setCellFormula(numerics[i].getAddress().formatAsString() + "*1.23");
+        }
+        evaluator = workbook.getCreationHelper().createFormulaEvaluator();
+    }
+
+    @TearDown(Level.Trial)
+    public void closeWorkbook() throws IOException {
+        workbook.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CELLS)
+    public void stringCells(Blackhole blackhole) {
+        for (Cell cell : strings) {
+            blackhole.consume(ExcelReader.getCellValue(cell, evaluator));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CELLS)
+    public void numericCells(Blackhole blackhole) {
+        for (Cell cell : numerics) {
+            blackhole.consume(ExcelReader.getCellValue(cell, evaluator));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CELLS)
+    public void formulaCells(Blackhole blackhole) {
+        evaluator.clearAllCachedResultValues();
+        for (Cell cell : formulas) {
+            blackhole.consume(ExcelReader.getCellValue(cell, evaluator));
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    @OperationsPerInvocation(CELLS)
+    public void numericCellsFourThreads(Blackhole blackhole) {
+        for (Cell cell : numerics) {
+            blackhole.consume(ExcelReader.getCellValue(cell, evaluator));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.cds.automation.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caller-side cost of logging. {@link Logger} runs in whatever mode
+ * config.properties in the working directory selects; the async writer is also
+ * measured directly so both paths show up in one run. Console output is
+ * discarded so the terminal does not dominate the numbers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggerBenchmark {
+    private PrintStream console;
+    private Path asyncLog;
+    private AsyncLogWriter asyncWriter;
+    private int sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        console = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        }));
+        Logger.setLogLevel(Logger.LogLevel.INFO);
+
+        asyncLog = Files.createTempFile("cds-bench", ".log");
+        asyncWriter = new AsyncLogWriter(asyncLog, 8192, 10L * 1024 * 1024, 1,
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Logger.clearLogs();
+        System.setOut(console);
+        Files.deleteIfExists(asyncLog);
+        Files.deleteIfExists(asyncLog.resolveSibling(asyncLog.getFileName() + ".1"));
+    }
+
+    @Benchmark
+    public void info() {
+        Logger.info("worker-1 processing declaration RR" + (sequence++) + "PT");
+    }
+
+    @Benchmark
+    public void debugDisabled() {
+        Logger.debug("Waiting for element presence: By.id: ContentPlaceHolder1_txtItemId " + (sequence++));
+    }
+
+    @Benchmark
+    public void debugDisabledLazy() {
+        int current = sequence++;
+        Logger.debug(() -> "Waiting for element presence: By.id: ContentPlaceHolder1_txtItemId " + current);
+    }
+
+    @Benchmark
+    public void asyncEnqueue() {
+        asyncWriter.enqueue(Logger.LogLevel.INFO, "worker-1 processing declaration RR" + (sequence++) + "PT");
+    }
+}
@@ -0,0 +1,57 @@
+package com.cds.automation.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import java.text.DecimalFormat;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** {@link NumberFormatter} against the {@code DecimalFormat("#.###")} it replaces. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NumberFormatterBenchmark {
+    private static final int VALUES = 1024;
+
+    private final DecimalFormat decimalFormat = new DecimalFormat("#.###");
+    private double[] values;
+
+    @Setup(Level.Trial)
+    public void createValues() {
+        Random random = new Random(42);
+        values = new double[VALUES];
+        for (int i = 0; i < VALUES; i++) {
+            values[i] = i % 3 == 0 ? random.nextInt(100000) : random.nextInt(1000000) / 1000.0;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void decimalFormat(Blackhole blackhole) {
+        for (double value : values) {
+            blackhole.consume(decimalFormat.format(value));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void numberFormatter(Blackhole blackhole) {
+        for (double value : values) {
+            blackhole.consume(NumberFormatter.format(value));
+        }
+    }
+}
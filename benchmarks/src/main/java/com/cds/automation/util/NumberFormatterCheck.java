@@ -0,0 +1,68 @@
+package com.cds.automation.util;
+
+import java.text.DecimalFormat;
+import java.util.Random;
+
+/**
+ * Differential check of {@link NumberFormatter} against {@code DecimalFormat("#.###")}
+ * over edge cases and random doubles drawn from several distributions (cell-like
+ * quantities and prices, exact .0005 ties, wide magnitudes, arbitrary bit patterns).
+ * Exits with status 1 on the first mismatches. Run it under different
+ * {@code -Duser.language}/{@code -Duser.country} settings to cover other separators.
+ *
+ * <pre>
+ * mvn -f benchmarks/pom.xml compile exec:java -Dbenchmark.main=com.cds.automation.util.NumberFormatterCheck -Dexec.args="10000000"
+ * </pre>
+ */
+public class NumberFormatterCheck {
+    private static final double[] EDGE_CASES = {
+        0, -0.0, 0.5, -0.5, 0.0005, 0.0015, 0.0025, 0.0625, -0.0001, -0.0005, 1e-10, -1e-10,
+        0.9995, -0.9995, 1.0005, 2.5, 4.35, 0.1 + 0.2, 123456.7895, 8.999999999999e12, 9e12,
+        1e15, 1e20, -1e20, Double.MIN_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE,
+        Long.MAX_VALUE, Long.MIN_VALUE, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY
+    };
+
+    public static void main(String[] args) {
+        long samples = args.length > 0 ? Long.parseLong(args[0]) : 10_000_000L;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+        DecimalFormat reference = new DecimalFormat("#.###");
+        Random random = new Random(seed);
+
+        int mismatches = 0;
+        for (double value : EDGE_CASES) {
+            mismatches += compare(reference, value);
+        }
+        for (long i = 0; i < samples && mismatches < 20; i++) {
+            mismatches += compare(reference, sample(random, (int) (i % 7)));
+        }
+
+        System.out.printf("%d edge cases and %d random values (seed %d): %d mismatch(es)%n",
+            EDGE_CASES.length, samples, seed, mismatches);
+        if (mismatches > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static double sample(Random random, int distribution) {
+        switch (distribution) {
+            case 0: return random.nextDouble();
+            case 1: return (random.nextDouble() - 0.5) * 2e6;
+            case 2: return Math.round(random.nextDouble() * 1e7) / 1e4;
+            case 3: return (random.nextInt(2_000_000) - 1_000_000) / 2000.0;
+            case 4: return random.nextInt(100_000) + random.nextInt(2000) * 0.0005;
+            case 5: return Math.pow(10, random.nextInt(36) - 18) * (random.nextDouble() - 0.5);
+            default: return Double.longBitsToDouble(random.nextLong());
+        }
+    }
+
+    private static int compare(DecimalFormat reference, double value) {
+        String expected = reference.format(value);
+        String actual = NumberFormatter.format(value);
+        if (expected.equals(actual)) {
+            return 0;
+        }
+        System.out.printf("Mismatch for %s (bits %016x): expected '%s', got '%s'%n",
+            value, Double.doubleToRawLongBits(value), expected, actual);
+        return 1;
+    }
+}
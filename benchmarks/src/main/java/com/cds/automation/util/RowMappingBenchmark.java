@@ -0,0 +1,45 @@
+package com.cds.automation.util;
+
+import com.cds.automation.model.DeclarationData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/** Cost of turning one row of cell values into a {@link DeclarationData}. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowMappingBenchmark {
+    private String[] row;
+
+    @Setup(Level.Trial)
+    public void createRow() {
+        row = new String[23];
+        for (int i = 0; i < row.length; i++) {
+            row[i] = "Value " + i;
+        }
+    }
+
+    @Benchmark
+    public DeclarationData construct() {
+        return new DeclarationData(row[0], row[6], row[7], row[5], row[8], row[9], row[10], row[11],
+            row[12], row[13], row[16], row[17], row[20], row[21], row[22]);
+    }
+
+    @Benchmark
+    public DeclarationData mapColumns() {
+        return DeclarationColumns.legacy().toDeclaration(column -> row[column], "ADD");
+    }
+}
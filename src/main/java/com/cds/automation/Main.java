@@ -1,10 +1,18 @@
 package com.cds.automation;
 
 import com.cds.automation.core.CustomsDeclarationAutomator;
+import com.cds.automation.core.InboxDaemon;
+import com.cds.automation.util.Logger;
 import java.util.Scanner;
 
 public class Main {
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--daemon")) {
+            runDaemon(args.length > 1 ? args[1] : null);
+            return;
+        }
+
+        boolean failed = false;
         try (Scanner scanner = new Scanner(System.in)) {
             System.out.println("Customs Declaration System Automator");
             System.out.println("==================================");
@@ -20,6 +28,30 @@ public class Main {
         } catch (Exception e) {
             System.err.println("\nError during automation: " + e.getMessage());
             e.printStackTrace();
+            failed = true;
+        } finally {
+            Logger.shutdown();
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+
+    /** Runs until the process is stopped, e.g. with Ctrl+C or a service manager. */
+    private static void runDaemon(String inbox) {
+        try {
+            InboxDaemon daemon = InboxDaemon.fromConfig(inbox);
+            // The log goes last, so what the daemon logs while closing is still written
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                daemon.close();
+                Logger.shutdown();
+            }, "inbox-shutdown"));
+            daemon.run();
+        } catch (Exception e) {
+            System.err.println("\nError in daemon mode: " + e.getMessage());
+            e.printStackTrace();
+            // Before exit, since the hook that would do it may not be registered yet
+            Logger.shutdown();
             System.exit(1);
         }
     }
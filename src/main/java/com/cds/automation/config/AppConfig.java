@@ -2,6 +2,8 @@ package com.cds.automation.config;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 
 public class AppConfig {
@@ -24,6 +26,58 @@ public class AppConfig {
         return Integer.parseInt(properties.getProperty("retry.delay", "500"));
     }
 
+    public static long getRetryMaxDelay() {
+        return Long.parseLong(properties.getProperty("retry.max.delay", "8000"));
+    }
+
+    public static long getRetryElementDelay() {
+        return Long.parseLong(properties.getProperty("retry.element.delay", "200"));
+    }
+
+    public static double getRetryJitter() {
+        return Double.parseDouble(properties.getProperty("retry.jitter", "0.5"));
+    }
+
+    public static int getRowTimeBudget() {
+        return Integer.parseInt(properties.getProperty("row.time.budget", "120"));
+    }
+
+    public static int getBreakerFailureThreshold() {
+        return Integer.parseInt(properties.getProperty("breaker.failure.threshold", "5"));
+    }
+
+    public static int getBreakerPause() {
+        return Integer.parseInt(properties.getProperty("breaker.pause", "30"));
+    }
+
+    public static int getBreakerMaxPause() {
+        return Integer.parseInt(properties.getProperty("breaker.max.pause", "600"));
+    }
+
+    public static double getThrottleRate() {
+        return Double.parseDouble(properties.getProperty("throttle.rate", "0"));
+    }
+
+    public static int getThrottleBurst() {
+        return Integer.parseInt(properties.getProperty("throttle.burst", "5"));
+    }
+
+    public static int getThrottleMinConcurrency() {
+        return Integer.parseInt(properties.getProperty("throttle.concurrency.min", "1"));
+    }
+
+    public static int getThrottleMaxConcurrency() {
+        return Integer.parseInt(properties.getProperty("throttle.concurrency.max", "64"));
+    }
+
+    public static long getThrottleLatencyLimit() {
+        return Long.parseLong(properties.getProperty("throttle.latency.limit", "15000"));
+    }
+
+    public static double getThrottleBackoff() {
+        return Double.parseDouble(properties.getProperty("throttle.backoff", "0.7"));
+    }
+
     public static int getPageLoadTimeout() {
         return Integer.parseInt(properties.getProperty("page.load.timeout", "30"));
     }
@@ -32,7 +86,185 @@ public class AppConfig {
         return Integer.parseInt(properties.getProperty("element.wait.timeout", "10"));
     }
 
+    public static long getWaitInitialPoll() {
+        return Long.parseLong(properties.getProperty("wait.poll.initial", "5"));
+    }
+
+    public static long getWaitMaxPoll() {
+        return Long.parseLong(properties.getProperty("wait.poll.max", "250"));
+    }
+
+    public static long getWaitDomQuietPeriod() {
+        return Long.parseLong(properties.getProperty("wait.dom.quiet", "50"));
+    }
+
+    public static long getWaitResponseTimeout() {
+        return Long.parseLong(properties.getProperty("wait.response.timeout", "2000"));
+    }
+
     public static String getWebDriverPath() {
         return properties.getProperty("webdriver.chrome.driver", "chromedriver");
     }
+
+    public static int getWorkerCount() {
+        return Integer.parseInt(properties.getProperty("worker.count", "1"));
+    }
+
+    public static int getAccountMaxWorkers() {
+        return Integer.parseInt(properties.getProperty("account.max.workers", "0"));
+    }
+
+    /**
+     * Portal accounts listed as account.1.username, account.1.password and
+     * account.1.url, then account.2..., up to the first missing username. A blank
+     * url means the one in the workbook.
+     */
+    public static List<String[]> getAccounts() {
+        List<String[]> accounts = new ArrayList<>();
+        for (int i = 1; !properties.getProperty("account." + i + ".username", "").isEmpty(); i++) {
+            accounts.add(new String[]{
+                properties.getProperty("account." + i + ".username"),
+                properties.getProperty("account." + i + ".password", ""),
+                properties.getProperty("account." + i + ".url", "")
+            });
+        }
+        return accounts;
+    }
+
+    public static boolean isStreamingExcel() {
+        return Boolean.parseBoolean(properties.getProperty("excel.streaming", "false"));
+    }
+
+    public static String getColumnMappingFile() {
+        return properties.getProperty("column.mapping.file", "");
+    }
+
+    public static boolean isCoalescingEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("coalesce.enabled", "true"));
+    }
+
+    public static boolean isValidationEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("validation.enabled", "true"));
+    }
+
+    public static int getValidationBatchSize() {
+        return Integer.parseInt(properties.getProperty("validation.batch.size", "256"));
+    }
+
+    public static int getPipelineQueueCapacity() {
+        return Integer.parseInt(properties.getProperty("pipeline.queue.capacity", "100"));
+    }
+
+    public static int getPipelineMetricsInterval() {
+        return Integer.parseInt(properties.getProperty("pipeline.metrics.interval", "10"));
+    }
+
+    public static boolean isJournalEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("journal.enabled", "true"));
+    }
+
+    public static boolean isJournalRetryInterrupted() {
+        return Boolean.parseBoolean(properties.getProperty("journal.retry.interrupted", "false"));
+    }
+
+    public static boolean isFastFillEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("form.fast.fill", "false"));
+    }
+
+    public static String getSubmitterEngine() {
+        return properties.getProperty("submitter.engine", "selenium");
+    }
+
+    public static boolean isLeanBrowserProfile() {
+        return "lean".equalsIgnoreCase(properties.getProperty("browser.profile", "default"));
+    }
+
+    public static String getBrowserWindowSize() {
+        return properties.getProperty("browser.window.size", "1280,900");
+    }
+
+    public static String getBrowserBlockedUrls() {
+        return properties.getProperty("browser.blocked.urls", "");
+    }
+
+    public static boolean isBrowserPrelaunchEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("browser.prelaunch", "false"));
+    }
+
+    public static boolean isSessionStoreEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("session.store.enabled", "false"));
+    }
+
+    public static String getSessionStoreDirectory() {
+        return properties.getProperty("session.store.directory", ".sessions");
+    }
+
+    /** Raw 32-byte key, outside the store directory; CDS_SESSION_KEY takes precedence. */
+    public static String getSessionKeyFile() {
+        return properties.getProperty("session.key.file", "");
+    }
+
+    public static int getSessionMaxAge() {
+        return Integer.parseInt(properties.getProperty("session.max.age", "20"));
+    }
+
+    public static int getSessionReloginInterval() {
+        return Integer.parseInt(properties.getProperty("session.relogin.interval", "0"));
+    }
+
+    public static String getSessionAuthCookie() {
+        return properties.getProperty("session.auth.cookie", ".ASPXAUTH");
+    }
+
+    public static int getSessionExpiryMargin() {
+        return Integer.parseInt(properties.getProperty("session.expiry.margin", "60"));
+    }
+
+    public static String getDaemonInbox() {
+        return properties.getProperty("daemon.inbox", "inbox");
+    }
+
+    public static String getDaemonDoneDirectory() {
+        return properties.getProperty("daemon.done.directory", "");
+    }
+
+    public static String getDaemonFailedDirectory() {
+        return properties.getProperty("daemon.failed.directory", "");
+    }
+
+    public static int getDaemonMaxFiles() {
+        return Integer.parseInt(properties.getProperty("daemon.max.files", "1"));
+    }
+
+    public static long getDaemonSettleTime() {
+        return Long.parseLong(properties.getProperty("daemon.settle", "2000"));
+    }
+
+    public static boolean isDaemonHeadless() {
+        return Boolean.parseBoolean(properties.getProperty("daemon.headless", "true"));
+    }
+
+    public static int getDaemonShutdownGrace() {
+        return Integer.parseInt(properties.getProperty("daemon.shutdown.grace", "60"));
+    }
+
+    public static String getReportDirectory() {
+        return properties.getProperty("report.directory", "reports");
+    }
+
+    public static boolean isAsyncLogging() {
+        return Boolean.parseBoolean(properties.getProperty("log.async", "false"));
+    }
+
+    public static int getLogBufferSize() {
+        return Integer.parseInt(properties.getProperty("log.buffer.size", "8192"));
+    }
+
+    public static long getLogMaxFileSize() {
+        return Long.parseLong(properties.getProperty("log.max.file.size", "10485760"));
+    }
+
+    public static int getLogMaxBackups() {
+        return Integer.parseInt(properties.getProperty("log.max.backups", "5"));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,117 @@
+package com.cds.automation.core;
+
+import com.cds.automation.util.Logger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One worker pool per portal account. The site serializes edits within a
+ * session, so spreading rows over several accounts is what raises throughput.
+ *
+ * Each row goes to an account picked by rendezvous hashing on its reference id.
+ * The choice depends only on the id and the account's username and URL, not on
+ * the order of rows or of the accounts, so every row for an item lands on the
+ * same account in every run. Adding an account moves only the rows it takes
+ * over, and removing one moves only the rows it had.
+ *
+ * Accounts on the same site URL share one {@link CircuitBreaker}, since a
+ * failing site fails for all of them.
+ */
+public final class AccountShards {
+    private final List<String> names;
+    private final List<WorkerPool> pools;
+    private final long[] seeds;
+
+    private AccountShards(List<String> names, List<WorkerPool> pools, long[] seeds) {
+        this.names = names;
+        this.pools = pools;
+        this.seeds = seeds;
+    }
+
+    /**
+     * Splits {@code totalWorkers} evenly over the accounts, at least one each and
+     * at most {@code maxPerAccount} each when that is positive.
+     */
+    public static AccountShards create(List<String[]> accounts, int totalWorkers, int maxPerAccount,
+                                       SubmitterPool submitters, String[] senderInfo, CheckpointJournal journal) {
+        if (accounts.isEmpty()) {
+            throw new IllegalArgumentException("No portal account configured");
+        }
+        int count = accounts.size();
+        List<String> names = new ArrayList<>();
+        List<WorkerPool> pools = new ArrayList<>();
+        long[] seeds = new long[count];
+        Map<String, CircuitBreaker> breakers = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            String[] credentials = accounts.get(i);
+            int workers = workersFor(i, count, totalWorkers, maxPerAccount);
+            // One account keeps the thread names, and so the saved sessions, of a single pool
+            String prefix = count == 1 ? "worker" : "worker-a" + (i + 1);
+            names.add(credentials[0]);
+            CircuitBreaker breaker = breakers.computeIfAbsent(credentials[2], url -> CircuitBreaker.fromConfig());
+            pools.add(new WorkerPool(prefix, workers, submitters, credentials, senderInfo, journal, breaker));
+            seeds[i] = hash(credentials[0] + '|' + credentials[2]);
+        }
+        if (count > 1) {
+            Logger.info("Sharding rows across " + count + " accounts: " + names);
+        }
+        return new AccountShards(Collections.unmodifiableList(names), Collections.unmodifiableList(pools), seeds);
+    }
+
+    /** Worker count of the account at {@code index} out of {@code count}. */
+    public static int workersFor(int index, int count, int totalWorkers, int maxPerAccount) {
+        int workers = Math.max(1, totalWorkers / count + (index < totalWorkers % count ? 1 : 0));
+        return maxPerAccount > 0 ? Math.min(workers, maxPerAccount) : workers;
+    }
+
+    public int size() {
+        return pools.size();
+    }
+
+    public WorkerPool getPool(int shard) {
+        return pools.get(shard);
+    }
+
+    public String getName(int shard) {
+        return names.get(shard);
+    }
+
+    /** The account that handles every row with this reference id. */
+    public int shardOf(String referenceId) {
+        if (seeds.length == 1) {
+            return 0;
+        }
+        long id = hash(referenceId);
+        int best = 0;
+        long bestScore = Long.MIN_VALUE;
+        for (int shard = 0; shard < seeds.length; shard++) {
+            long score = mix(id ^ seeds[shard]);
+            if (score > bestScore) {
+                bestScore = score;
+                best = shard;
+            }
+        }
+        return best;
+    }
+
+    // 64-bit FNV-1a over the UTF-8 bytes, so the result never depends on the JVM
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    // SplitMix64 finalizer: spreads the combined key over all 64 bits before comparing
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,166 @@
+package com.cds.automation.core;
+
+import com.cds.automation.util.Logger;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Append-only log of per-row progress, one line per event:
+ * {@code <state> <TAB> <action> <TAB> <referenceId>}. Every append is forced to
+ * disk before returning, so after a crash the journal tells exactly which rows
+ * were committed and which were in flight.
+ */
+public class CheckpointJournal implements AutoCloseable {
+    private static final char STARTED = 'S';
+    private static final char SUCCEEDED = 'C';
+    private static final char FAILED = 'F';
+
+    private final Path path;
+    private final FileChannel channel;
+    private final Set<String> committed = new HashSet<>();
+    private final Set<String> inFlight = new HashSet<>();
+    // Rows earlier runs committed, as found when the journal was opened; this run's own successes are not in it
+    private final Set<String> committedBefore = new HashSet<>();
+    // Rows the previous run started and never finished, as found when the journal was opened
+    private final Set<String> interrupted = new HashSet<>();
+    private ByteBuffer buffer = ByteBuffer.allocate(256);
+
+    private CheckpointJournal(Path path, FileChannel channel) {
+        this.path = path;
+        this.channel = channel;
+    }
+
+    public static CheckpointJournal open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        CheckpointJournal journal = new CheckpointJournal(path, channel);
+        try {
+            journal.replay();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        journal.committedBefore.addAll(journal.committed);
+        journal.interrupted.addAll(journal.inFlight);
+
+        Logger.info(String.format("Checkpoint journal %s: %d committed, %d interrupted row(s)",
+            path, journal.committedBefore.size(), journal.interrupted.size()));
+        for (String key : journal.interrupted) {
+            Logger.error("Row was in flight when the previous run stopped: " + key);
+        }
+        return journal;
+    }
+
+    public static CheckpointJournal disabled() {
+        return new CheckpointJournal(null, null);
+    }
+
+    /**
+     * Whether an earlier run committed this row. Rows committed by the current
+     * run do not count, so a later row of the same id and action in the file is
+     * still submitted.
+     */
+    public synchronized boolean isCommitted(String referenceId, String action) {
+        return committedBefore.contains(key(referenceId, action));
+    }
+
+    /**
+     * Whether the previous run started this row and stopped before it finished,
+     * so the portal may or may not have taken it.
+     */
+    public synchronized boolean wasInterrupted(String referenceId, String action) {
+        return interrupted.contains(key(referenceId, action));
+    }
+
+    public void started(String referenceId, String action) {
+        append(STARTED, referenceId, action);
+    }
+
+    public void finished(ProcessingResult result, String action) {
+        append(result.isSuccess() ? SUCCEEDED : FAILED, result.getReferenceId(), action);
+    }
+
+    private synchronized void append(char state, String referenceId, String action) {
+        apply(state, key(referenceId, action));
+        if (channel == null) {
+            return;
+        }
+
+        byte[] line = (state + "\t" + action.toUpperCase() + "\t" + referenceId + "\n")
+            .getBytes(StandardCharsets.UTF_8);
+        if (buffer.capacity() < line.length) {
+            buffer = ByteBuffer.allocate(line.length);
+        }
+        buffer.clear();
+        buffer.put(line).flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to append to checkpoint journal " + path, e);
+        }
+    }
+
+    private void replay() throws IOException {
+        ByteBuffer contents = ByteBuffer.allocate((int) channel.size());
+        while (contents.hasRemaining() && channel.read(contents, contents.position()) >= 0) {
+            // read until full
+        }
+        byte[] bytes = contents.array();
+
+        int end = bytes.length;
+        while (end > 0 && bytes[end - 1] != '\n') {
+            end--;
+        }
+        if (end < bytes.length) {
+            // Drop a torn write left by a crash mid-append so new records start on a clean line
+            Logger.error("Discarding incomplete trailing record in checkpoint journal " + path);
+            channel.truncate(end);
+        }
+        channel.position(end);
+
+        String[] lines = new String(bytes, 0, end, StandardCharsets.UTF_8).split("\n");
+        for (String line : lines) {
+            String[] parts = line.split("\t", 3);
+            if (parts.length == 3 && parts[0].length() == 1) {
+                apply(parts[0].charAt(0), key(parts[2], parts[1]));
+            }
+        }
+    }
+
+    private void apply(char state, String key) {
+        switch (state) {
+            case STARTED:
+                inFlight.add(key);
+                break;
+            case SUCCEEDED:
+                inFlight.remove(key);
+                committed.add(key);
+                break;
+            case FAILED:
+                inFlight.remove(key);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static String key(String referenceId, String action) {
+        return action.toUpperCase() + "\t" + referenceId;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.cds.automation.core;
+
+import com.cds.automation.config.AppConfig;
+import com.cds.automation.util.Logger;
+import com.cds.automation.util.RetryPolicy;
+
+/**
+ * Shared by all workers of every account on the same site. A run of consecutive
+ * row failures that point at the site rather than at the data means the site is
+ * failing for everyone, so the breaker opens and holds back every worker for a
+ * pause. A login that fails concerns only its account and does not count here:
+ * that account's workers stop and its rows fail, the other accounts go on. After the pause one
+ * row goes through as a probe: its success resumes the run, its failure opens
+ * the breaker again for twice as long.
+ */
+public class CircuitBreaker {
+    private enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long initialPauseMillis;
+    private final long maxPauseMillis;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long pauseMillis;
+    private long openUntil;
+    private boolean probeInFlight;
+
+    public CircuitBreaker(int failureThreshold, long initialPauseMillis, long maxPauseMillis) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.initialPauseMillis = initialPauseMillis;
+        this.maxPauseMillis = Math.max(initialPauseMillis, maxPauseMillis);
+    }
+
+    public static CircuitBreaker fromConfig() {
+        return new CircuitBreaker(AppConfig.getBreakerFailureThreshold(),
+            AppConfig.getBreakerPause() * 1000L, AppConfig.getBreakerMaxPause() * 1000L);
+    }
+
+    /**
+     * Blocks while the breaker is open. Returns true if the caller's next row is
+     * the probe, whose result decides whether the run resumes.
+     */
+    public synchronized boolean acquire() throws InterruptedException {
+        while (true) {
+            switch (state) {
+                case CLOSED:
+                    return false;
+                case OPEN:
+                    long remaining = openUntil - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        state = State.HALF_OPEN;
+                        Logger.info("Circuit breaker half-open, probing the site with one row");
+                        break;
+                    }
+                    wait(remaining);
+                    break;
+                default:
+                    if (!probeInFlight) {
+                        probeInFlight = true;
+                        return true;
+                    }
+                    wait();
+                    break;
+            }
+        }
+    }
+
+    public synchronized void record(ProcessingResult result, boolean probe) {
+        boolean siteFailure = !result.isSuccess()
+            && (result.getError() == null || !RetryPolicy.isFatal(result.getError()));
+
+        if (probe) {
+            probeInFlight = false;
+            if (result.isSuccess()) {
+                Logger.info("Circuit breaker closed, site is responding again");
+                state = State.CLOSED;
+                consecutiveFailures = 0;
+                pauseMillis = 0;
+            } else if (siteFailure) {
+                consecutiveFailures++;
+                open();
+            }
+            // A data error says nothing about the site: the next row probes again
+            notifyAll();
+            return;
+        }
+        if (state != State.CLOSED) {
+            // Rows that were already running when the breaker opened
+            return;
+        }
+
+        if (result.isSuccess()) {
+            consecutiveFailures = 0;
+        } else if (siteFailure && ++consecutiveFailures >= failureThreshold) {
+            open();
+        }
+    }
+
+    private void open() {
+        pauseMillis = pauseMillis == 0 ? initialPauseMillis : Math.min(maxPauseMillis, pauseMillis * 2);
+        openUntil = System.currentTimeMillis() + pauseMillis;
+        state = State.OPEN;
+        Logger.error(String.format("Circuit breaker open after %d consecutive failure(s), pausing all workers for %d s",
+            consecutiveFailures, pauseMillis / 1000));
+    }
+}
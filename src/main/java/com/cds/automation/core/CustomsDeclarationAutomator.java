@@ -1,184 +1,131 @@
 package com.cds.automation.core;
 
-import com.cds.automation.ui.WebDriverManager;
-import com.cds.automation.ui.WebElementHandler;
-import com.cds.automation.util.ExcelReader;
+import com.cds.automation.config.AppConfig;
+import com.cds.automation.metrics.Metrics;
+import com.cds.automation.metrics.MetricsReport;
+import com.cds.automation.util.DeclarationReader;
+import com.cds.automation.util.Logger;
+import com.cds.automation.util.PortalThrottle;
 import com.cds.automation.model.DeclarationData;
-import org.openqa.selenium.*;
-import org.openqa.selenium.support.ui.Select;
 import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Stream;
 
 public class CustomsDeclarationAutomator {
-    private final WebDriver driver;
-    private final ExcelReader excelReader;
+    private final String runName;
+    private final SubmitterPool submitters;
+    private final boolean ownsSubmitters;
+    private final DeclarationReader excelReader;
+    private final CheckpointJournal journal;
+    private final RejectsFile rejects;
 
     public CustomsDeclarationAutomator(String filePath, boolean useHeadless) throws IOException {
-        this.excelReader = new ExcelReader(filePath);
-        this.driver = WebDriverManager.createDriver(useHeadless);
+        // Started first so Chrome boots while the workbook is being parsed
+        this(filePath, SubmitterPool.fromConfig(useHeadless, false), true);
     }
 
-    public void execute() {
-        try {
-            String[] credentials = excelReader.readCredentials();
-            WebDriverManager.login(driver, credentials[0], credentials[1], credentials[2]);
-            processDeclarations();
-        } finally {
-            cleanup();
-        }
+    /** Runs one file on sessions owned by the caller, which stay open afterwards. */
+    public CustomsDeclarationAutomator(String filePath, SubmitterPool submitters) throws IOException {
+        this(filePath, submitters, false);
     }
 
-    private void processDeclarations() {
+    private CustomsDeclarationAutomator(String filePath, SubmitterPool submitters, boolean ownsSubmitters)
+            throws IOException {
+        this.runName = Paths.get(filePath).getFileName().toString().replaceFirst("\\.[^.]*$", "");
+        this.submitters = submitters;
+        this.ownsSubmitters = ownsSubmitters;
         try {
-            String[] senderInfo = excelReader.readSenderInfo();
-            String action = excelReader.getAction();
-
-            for (DeclarationData declaration : excelReader.readDeclarations()) {
-                processDeclaration(declaration, senderInfo, action);
+            this.excelReader = DeclarationReader.open(filePath);
+            this.journal = AppConfig.isJournalEnabled()
+                ? CheckpointJournal.open(Paths.get(filePath + ".journal"))
+                : CheckpointJournal.disabled();
+            this.rejects = RejectsFile.open(Paths.get(filePath + ".rejects.csv"));
+        } catch (IOException | RuntimeException e) {
+            if (ownsSubmitters) {
+                submitters.close();
             }
-            
-            System.out.println("All declarations processed successfully.");
-        } catch (Exception e) {
-            System.err.println("Error processing declarations: " + e.getMessage());
-            throw new RuntimeException("Declaration processing failed", e);
+            throw e;
         }
     }
 
-    private void processDeclaration(DeclarationData declaration, String[] senderInfo, String action) {
+    public RunReport execute() {
         try {
-            WebElementHandler.retryWithDelay(() -> {
-                searchDeclaration(declaration.getReferenceId());
-                
-                switch (action.toUpperCase()) {
-                    case "ADD":
-                        insertDeclarationData(declaration, senderInfo);
-                        break;
-                    case "UPDATE":
-                        updateDeclarationData(declaration, senderInfo);
-                        break;
-                    case "DELETE":
-                        deleteDeclaration();
-                        break;
-                    default:
-                        throw new IllegalArgumentException("Invalid action: " + action);
-                }
-            }, 3, 2000);
-        } catch (TimeoutException e) {
-            handleTimeout(e, declaration.getReferenceId());
-        } catch (Exception e) {
-            handleError(e, declaration.getReferenceId());
-        }
-    }
-
-    private void searchDeclaration(String referenceId) {
-        WebElement searchField = WebElementHandler.waitForElementToBeClickable(
-            driver, By.id("ContentPlaceHolder1_txtItemId"), 20);
-        searchField.clear();
-        searchField.sendKeys(referenceId);
-        
-        WebElementHandler.retryOnStaleElement(() -> 
-            driver.findElement(By.id("ContentPlaceHolder1_btnOk")).click());
-
-        if (WebElementHandler.handlePopup(driver)) {
-            WebElementHandler.waitForElement(driver, 
-                By.id("ContentPlaceHolder1_txtItemId"), 10);
+            return processDeclarations();
+        } finally {
+            cleanup();
         }
     }
 
-    private void insertDeclarationData(DeclarationData declaration, String[] senderInfo) {
-        fillSenderInformation(senderInfo);
-        fillRecipientInformation(declaration);
-        fillItemInformation(declaration);
-        submitDeclaration();
-    }
-
-    private void updateDeclarationData(DeclarationData declaration, String[] senderInfo) {
-        WebElement updateButton = WebElementHandler.waitForElementToBeClickable(
-            driver, By.id("ContentPlaceHolder1_btnEdit"), 10);
-        updateButton.click();
-        
-        insertDeclarationData(declaration, senderInfo);
-    }
-
-    private void deleteDeclaration() {
-        WebElement deleteButton = WebElementHandler.waitForElementToBeClickable(
-            driver, By.id("ContentPlaceHolder1_btnDelete"), 10);
-        deleteButton.click();
-        WebElementHandler.handlePopup(driver);
-    }
-
-    private void fillSenderInformation(String[] senderInfo) {
-        WebElementHandler.retryOnException(() -> {
-            fillFormField("ContentPlaceHolder1_ctl01_ucDeclaration_txtSenderName", senderInfo[0]);
-            fillFormField("ContentPlaceHolder1_ctl01_ucDeclaration_txtSenderAddressLine1", senderInfo[1]);
-            fillFormField("ContentPlaceHolder1_ctl01_ucDeclaration_txtSenderAddressLine2", senderInfo[2]);
-            fillFormField("ContentPlaceHolder1_ctl01_ucDeclaration_txtSenderCity", senderInfo[3]);
-            fillFormField("ContentPlaceHolder1_ctl01_ucDeclaration_txtSenderState", senderInfo[4]);
-            fillFormField("ContentPlaceHolder1_ctl01_ucDeclaration_txtSenderCountry", senderInfo[5]);
-            fillFormField("ContentPlaceHolder1_ctl01_ucDeclaration_txtSenderTelephone", senderInfo[6]);
-        });
-    }
-
-    private void fillRecipientInformation(DeclarationData declaration) {
-        WebElementHandler.retryOnException(() -> {
-            fillFormField("ContentPlaceHolder1_ctl01_ucDeclaration_txtRecipientName", declaration.getRecipientName());
-            fillFormField("ContentPlaceHolder1_ctl01_ucDeclaration_txtRecipientAddressLine1", declaration.getRecipientAddress1());
-            fillFormField("ContentPlaceHolder1_ctl01_ucDeclaration_txtRecipientAddressLine2", declaration.getRecipientAddress2());
-            fillFormField("ContentPlaceHolder1_ctl01_ucDeclaration_txtRecipientZIP", declaration.getRecipientPostCode());
-            fillFormField("ContentPlaceHolder1_ctl01_ucDeclaration_txtRecipientCity", declaration.getRecipientCity());
-            fillFormField("ContentPlaceHolder1_ctl01_ucDeclaration_txtRecipientState", declaration.getRecipientState());
-            fillFormField("ContentPlaceHolder1_ctl01_ucDeclaration_txtRecipientCountry", declaration.getRecipientCountry());
-            fillFormField("ContentPlaceHolder1_ctl01_ucDeclaration_txtRecipientEmail", declaration.getRecipientEmail());
-            fillFormField("ContentPlaceHolder1_ctl01_ucDeclaration_txtRecipientTelephone", declaration.getRecipientTelephone());
-        });
-    }
+    private RunReport processDeclarations() {
+        // Its own registry, so other files running in the same process do not mix into the figures
+        try (Metrics.Scope runMetrics = Metrics.openRun()) {
+            List<String[]> accounts = readAccounts();
+            String[] senderInfo = excelReader.readSenderInfo();
 
-    private void fillItemInformation(DeclarationData declaration) {
-        WebElementHandler.retryOnException(() -> {
-            fillFormField("ContentPlaceHolder1_ctl01_ucDeclaration_rptCP_txtCPNumber_0", declaration.getQuantity());
-            fillFormField("ContentPlaceHolder1_ctl01_ucDeclaration_rptCP_txtCPDesc_0", declaration.getItemDescription());
-            fillFormField("ContentPlaceHolder1_ctl01_ucDeclaration_rptCP_txtCPNetWeight_0", declaration.getWeight());
-            fillFormField("ContentPlaceHolder1_ctl01_ucDeclaration_rptCP_txtCPAmount_0", declaration.getItemValue());
-            fillFormField("ContentPlaceHolder1_ctl01_ucDeclaration_rptCP_txtCPCurrency_0", declaration.getCurrency());
-        });
-    }
+            long started = System.currentTimeMillis();
+            AccountShards shards = AccountShards.create(accounts, AppConfig.getWorkerCount(),
+                AppConfig.getAccountMaxWorkers(), submitters, senderInfo, journal);
+            RowCoalescer coalescer = RowCoalescer.disabled();
+            if (AppConfig.isCoalescingEnabled()) {
+                try (Stream<DeclarationData> declarations = excelReader.streamDeclarations()) {
+                    coalescer = RowCoalescer.index(declarations, journal);
+                }
+                coalescer.printSummary();
+            }
+            DeclarationPipeline pipeline = new DeclarationPipeline(shards, journal, rejects, coalescer,
+                AppConfig.getPipelineQueueCapacity(), AppConfig.getPipelineMetricsInterval());
 
-    private void fillFormField(String fieldId, String value) {
-        WebElement element = driver.findElement(By.id(fieldId));
-        element.clear();
-        element.sendKeys(value);
-    }
+            RunReport report = pipeline.run(excelReader::streamDeclarations);
+            report.printSummary();
+            Logger.info("Portal throttle: " + PortalThrottle.shared().describe());
 
-    private void submitDeclaration() {
-        WebElementHandler.retryOnException(() -> {
-            WebElement submitButton = WebElementHandler.waitForElementToBeClickable(
-                driver, By.id("ContentPlaceHolder1_btnSubmit"), 10);
-            submitButton.click();
-            WebElementHandler.handlePopup(driver);
-        });
-    }
+            MetricsReport metrics = new MetricsReport(report.getResults().size(), report.getSuccessCount(),
+                report.getFailureCount(), System.currentTimeMillis() - started, runMetrics.snapshot());
+            metrics.printSummary();
+            metrics.writeTo(Paths.get(AppConfig.getReportDirectory()), runName);
 
-    private void handleTimeout(TimeoutException e, String referenceId) {
-        System.err.println("Timeout occurred while processing declaration " + referenceId + ": " + e.getMessage());
-        driver.navigate().refresh();
-        String[] credentials = excelReader.readCredentials();
-        WebDriverManager.login(driver, credentials[0], credentials[1], credentials[2]);
+            System.out.println("All declarations processed.");
+            return report;
+        } catch (Exception e) {
+            System.err.println("Error processing declarations: " + e.getMessage());
+            throw new RuntimeException("Declaration processing failed", e);
+        }
     }
 
-    private void handleError(Exception e, String referenceId) {
-        System.err.println("Error processing declaration " + referenceId + ": " + e.getMessage());
+    /** Accounts from config replace those in the workbook; a blank config url means the workbook's. */
+    private List<String[]> readAccounts() {
+        List<String[]> configured = AppConfig.getAccounts();
+        if (configured.isEmpty()) {
+            return excelReader.readAccounts();
+        }
+        String workbookUrl = excelReader.readCredentials()[2];
+        for (String[] account : configured) {
+            if (account[2].isEmpty()) {
+                account[2] = workbookUrl;
+            }
+        }
+        return configured;
     }
 
     private void cleanup() {
+        if (ownsSubmitters) {
+            submitters.close();
+        }
         try {
-            if (driver != null) {
-                driver.quit();
-            }
-        } finally {
-            try {
-                excelReader.close();
-            } catch (IOException e) {
-                System.err.println("Error closing Excel reader: " + e.getMessage());
-            }
+            excelReader.close();
+        } catch (IOException e) {
+            System.err.println("Error closing Excel reader: " + e.getMessage());
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            System.err.println("Error closing checkpoint journal: " + e.getMessage());
+        }
+        try {
+            rejects.close();
+        } catch (IOException e) {
+            System.err.println("Error closing rejects file: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+}
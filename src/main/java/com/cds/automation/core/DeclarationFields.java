@@ -0,0 +1,73 @@
+package com.cds.automation.core;
+
+import com.cds.automation.model.DeclarationData;
+import com.cds.automation.ui.FormSection;
+import java.util.Map;
+
+import static com.cds.automation.ui.FormSection.field;
+import static com.cds.automation.ui.FormSection.keystroke;
+
+/**
+ * The sections of the declaration form and the inputs in each, in the order
+ * they are filled. Both submitters bind their values through these.
+ */
+final class DeclarationFields {
+    private static final String FORM = "ContentPlaceHolder1_ctl01_ucDeclaration_";
+
+    static final FormSection SENDER = FormSection.of("sender",
+        field(FORM + "txtSenderName"),
+        field(FORM + "txtSenderAddressLine1"),
+        field(FORM + "txtSenderAddressLine2"),
+        field(FORM + "txtSenderCity"),
+        field(FORM + "txtSenderState"),
+        keystroke(FORM + "txtSenderCountry"),
+        field(FORM + "txtSenderTelephone"));
+
+    static final FormSection RECIPIENT = FormSection.of("recipient",
+        field(FORM + "txtRecipientName"),
+        field(FORM + "txtRecipientAddressLine1"),
+        field(FORM + "txtRecipientAddressLine2"),
+        field(FORM + "txtRecipientZIP"),
+        field(FORM + "txtRecipientCity"),
+        field(FORM + "txtRecipientState"),
+        keystroke(FORM + "txtRecipientCountry"),
+        field(FORM + "txtRecipientEmail"),
+        field(FORM + "txtRecipientTelephone"));
+
+    static final FormSection ITEM = FormSection.of("item",
+        field(FORM + "rptCP_txtCPNumber_0"),
+        field(FORM + "rptCP_txtCPDesc_0"),
+        field(FORM + "rptCP_txtCPNetWeight_0"),
+        field(FORM + "rptCP_txtCPAmount_0"),
+        keystroke(FORM + "rptCP_txtCPCurrency_0"));
+
+    private DeclarationFields() {
+    }
+
+    static Map<String, String> sender(String[] senderInfo) {
+        return SENDER.bind(senderInfo[0], senderInfo[1], senderInfo[2], senderInfo[3], senderInfo[4],
+            senderInfo[5], senderInfo[6]);
+    }
+
+    static Map<String, String> recipient(DeclarationData declaration) {
+        return RECIPIENT.bind(
+            declaration.getRecipientName(),
+            declaration.getRecipientAddress1(),
+            declaration.getRecipientAddress2(),
+            declaration.getRecipientPostCode(),
+            declaration.getRecipientCity(),
+            declaration.getRecipientState(),
+            declaration.getRecipientCountry(),
+            declaration.getRecipientEmail(),
+            declaration.getRecipientTelephone());
+    }
+
+    static Map<String, String> item(DeclarationData declaration) {
+        return ITEM.bind(
+            declaration.getQuantity(),
+            declaration.getItemDescription(),
+            declaration.getWeight(),
+            declaration.getItemValue(),
+            declaration.getCurrency());
+    }
+}
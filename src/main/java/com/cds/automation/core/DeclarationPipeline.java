@@ -0,0 +1,383 @@
+package com.cds.automation.core;
+
+import com.cds.automation.config.AppConfig;
+import com.cds.automation.model.DeclarationData;
+import com.cds.automation.util.Logger;
+import com.cds.automation.util.PortalThrottle;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runs a file through four stages connected by bounded queues:
+ * read -> validate -> submit (worker pool) -> record. A full queue blocks the
+ * stage feeding it, so a slow browser stage throttles parsing instead of
+ * letting rows pile up in memory.
+ *
+ * The validate stage takes whatever rows are waiting, checks them in parallel
+ * on the common fork-join pool and diverts the invalid ones to the rejects file,
+ * so they never reach a browser session.
+ *
+ * Accepted rows are split by reference id over one queue per portal account
+ * (see {@link AccountShards}), each drained by that account's worker pool.
+ *
+ * When the file mixes actions the read stage makes one pass per action, so
+ * workers run all deletes, then all updates, then all adds instead of switching
+ * flows from row to row. A pass starts only once every row of the one before
+ * has a result, so a DELETE and a later ADD of the same id never run at the
+ * same time on two workers; an ADD whose DELETE failed is not submitted.
+ * The passes come from the {@link RowCoalescer} index, so with
+ * {@code coalesce.enabled=false} the file is handed to the workers in one pass,
+ * in file order.
+ */
+public class DeclarationPipeline {
+    private static final ProcessingResult END_OF_RESULTS = ProcessingResult.failure(null, "end of results");
+    // Below this a batch is validated on the stage thread, forking would cost more than it saves
+    private static final int PARALLEL_THRESHOLD = 64;
+
+    private final AccountShards shards;
+    private final CheckpointJournal journal;
+    private final RejectsFile rejects;
+    private final RowCoalescer coalescer;
+    private final DeclarationValidator validator = new DeclarationValidator();
+    private final boolean validationEnabled = AppConfig.isValidationEnabled();
+    private final boolean retryInterrupted = AppConfig.isJournalRetryInterrupted();
+    private final int validationBatchSize = Math.max(1, AppConfig.getValidationBatchSize());
+    private final int metricsIntervalSeconds;
+    private final BlockingQueue<DeclarationData> parsed;
+    private final List<BlockingQueue<DeclarationData>> accepted = new ArrayList<>();
+    private final int[] acceptedPerShard;
+    private final BlockingQueue<ProcessingResult> results;
+    private final Map<String, BlockingQueue<?>> queues = new LinkedHashMap<>();
+    private final Map<String, Integer> maxDepths = new LinkedHashMap<>();
+    private volatile Exception readFailure;
+    // Rows that entered the current pass and rows that have left the pipeline, for the barrier between passes
+    private final Object passLock = new Object();
+    private long passRows;
+    private long passSettled;
+    private final Set<String> failedIds = ConcurrentHashMap.newKeySet();
+    private int alreadyCommitted;
+    private int setAside;
+    private int superseded;
+
+    public DeclarationPipeline(AccountShards shards, CheckpointJournal journal, RejectsFile rejects,
+                               RowCoalescer coalescer, int queueCapacity, int metricsIntervalSeconds) {
+        this.shards = shards;
+        this.journal = journal;
+        this.rejects = rejects;
+        this.coalescer = coalescer;
+        this.metricsIntervalSeconds = metricsIntervalSeconds;
+        this.parsed = new ArrayBlockingQueue<>(queueCapacity);
+        this.results = new ArrayBlockingQueue<>(queueCapacity);
+        this.acceptedPerShard = new int[shards.size()];
+        queues.put("read->validate", parsed);
+        for (int shard = 0; shard < shards.size(); shard++) {
+            BlockingQueue<DeclarationData> queue = new ArrayBlockingQueue<>(queueCapacity);
+            accepted.add(queue);
+            queues.put(shards.size() == 1 ? "validate->submit" : "validate->" + shards.getName(shard), queue);
+        }
+        queues.put("submit->record", results);
+    }
+
+    public RunReport run(Supplier<Stream<DeclarationData>> source) {
+        RunReport report = new RunReport();
+        ScheduledExecutorService monitor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "pipeline-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        monitor.scheduleAtFixedRate(this::logQueueDepths,
+            metricsIntervalSeconds, metricsIntervalSeconds, TimeUnit.SECONDS);
+
+        try {
+            for (int shard = 0; shard < shards.size(); shard++) {
+                shards.getPool(shard).start(accepted.get(shard), results);
+            }
+            Thread reader = startStage("read", () -> readStage(source));
+            Thread validator = startStage("validate", this::validateStage);
+            Thread recorder = startStage("record", () -> recordStage(report));
+
+            for (int shard = 0; shard < shards.size(); shard++) {
+                shards.getPool(shard).awaitCompletion();
+            }
+            reader.join();
+            validator.join();
+            results.put(END_OF_RESULTS);
+            recorder.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while running declaration pipeline", e);
+        } finally {
+            monitor.shutdownNow();
+        }
+
+        sampleQueueDepths();
+        Logger.info("Peak queue depths: " + maxDepths);
+        if (shards.size() > 1) {
+            Map<String, Integer> perAccount = new LinkedHashMap<>();
+            for (int shard = 0; shard < shards.size(); shard++) {
+                perAccount.put(shards.getName(shard), acceptedPerShard[shard]);
+            }
+            Logger.info("Rows submitted per account: " + perAccount);
+        }
+        if (superseded > 0) {
+            Logger.info("Skipped " + superseded + " row(s) folded into or cancelled by another row with the same reference id");
+        }
+        if (alreadyCommitted > 0) {
+            Logger.info("Skipped " + alreadyCommitted + " row(s) already committed by a previous run");
+        }
+        if (setAside > 0) {
+            Logger.error("Set aside " + setAside + " interrupted ADD row(s) for review, see the rejects file");
+        }
+        if (readFailure != null) {
+            throw new RuntimeException("Reading declarations failed", readFailure);
+        }
+        return report;
+    }
+
+    private Thread startStage(String name, Runnable stage) {
+        Thread thread = new Thread(stage, "pipeline-" + name);
+        thread.start();
+        return thread;
+    }
+
+    private void readStage(Supplier<Stream<DeclarationData>> source) {
+        try {
+            List<String> groups = coalescer.actionGroups();
+            if (groups.size() > 1) {
+                Logger.info("Submitting actions in groups: " + groups);
+            }
+            for (int pass = 0; pass < groups.size(); pass++) {
+                if (pass > 0) {
+                    awaitPassSettled(groups.get(pass - 1));
+                }
+                try (Stream<DeclarationData> declarations = source.get()) {
+                    readPass(declarations, groups.get(pass), pass == 0);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            Logger.error("Reading declarations stopped: " + e.getMessage());
+            readFailure = e;
+        } finally {
+            putQuietly(parsed, WorkerPool.END_OF_INPUT);
+        }
+    }
+
+    private void readPass(Stream<DeclarationData> source, String action, boolean firstPass)
+            throws InterruptedException {
+        Iterator<DeclarationData> rows = source.iterator();
+        for (int row = 0; rows.hasNext(); row++) {
+            DeclarationData declaration = coalescer.resolve(rows.next(), row);
+            if (declaration == null) {
+                if (firstPass) {
+                    superseded++;
+                }
+            } else if (action == null || action.equals(RowCoalescer.action(declaration))) {
+                String referenceId = trim(declaration.getReferenceId());
+                if (!referenceId.isEmpty()
+                        && journal.isCommitted(referenceId, RowCoalescer.action(declaration))) {
+                    Logger.info("Skipping data row " + (row + 1) + " (" + RowCoalescer.action(declaration)
+                        + " " + referenceId + "): already committed by a previous run");
+                    alreadyCommitted++;
+                    continue;
+                }
+                entered();
+                if (!firstPass && failedIds.contains(referenceId)) {
+                    // The declaration still on the site would clash with this one
+                    Logger.error("Not submitting " + action + " of " + referenceId + ": its earlier "
+                        + "operation in this run failed");
+                    results.put(ProcessingResult.failure(referenceId,
+                        "Not submitted because the earlier operation on this id in this run failed"));
+                } else {
+                    parsed.put(declaration);
+                }
+            }
+        }
+    }
+
+    /** Blocks until every row read so far has a result or was skipped. */
+    private void awaitPassSettled(String finished) throws InterruptedException {
+        Logger.info("Waiting for the " + finished + " rows to finish before the next group");
+        synchronized (passLock) {
+            while (passSettled < passRows) {
+                passLock.wait();
+            }
+        }
+    }
+
+    private void entered() {
+        synchronized (passLock) {
+            passRows++;
+        }
+    }
+
+    private void settled() {
+        synchronized (passLock) {
+            passSettled++;
+            passLock.notifyAll();
+        }
+    }
+
+    private void validateStage() {
+        List<DeclarationData> batch = new ArrayList<>(validationBatchSize);
+        try {
+            boolean endOfInput = false;
+            while (!endOfInput) {
+                batch.add(parsed.take());
+                parsed.drainTo(batch, validationBatchSize - 1);
+                int last = batch.size() - 1;
+                if (batch.get(last) == WorkerPool.END_OF_INPUT) {
+                    batch.remove(last);
+                    endOfInput = true;
+                }
+                acceptBatch(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            for (BlockingQueue<DeclarationData> queue : accepted) {
+                putQuietly(queue, WorkerPool.END_OF_INPUT);
+            }
+        }
+    }
+
+    private void acceptBatch(List<DeclarationData> batch) throws InterruptedException {
+        List<Checked> checked = (batch.size() >= PARALLEL_THRESHOLD ? batch.parallelStream() : batch.stream())
+            .map(this::check)
+            .collect(Collectors.toList());
+
+        for (Checked row : checked) {
+            String referenceId = row.declaration.getReferenceId();
+            if (referenceId.isEmpty()) {
+                Logger.debug("Skipping row without reference id");
+                settled();
+                continue;
+            }
+            if (isInDoubt(row.declaration)) {
+                // A second ADD of an item the portal already took would create a duplicate declaration
+                String reason = "ADD was in flight when the previous run stopped and may already be on the portal;"
+                    + " check there, then remove the row or re-run with journal.retry.interrupted=true";
+                Logger.error("Set aside declaration " + referenceId + ": " + reason);
+                rejects.reject(row.declaration, Collections.singletonList(reason));
+                results.put(ProcessingResult.failure(referenceId, reason));
+                setAside++;
+                continue;
+            }
+            if (!row.problems.isEmpty()) {
+                Logger.error("Rejected declaration " + referenceId + ": " + String.join("; ", row.problems));
+                rejects.reject(row.declaration, row.problems);
+                results.put(ProcessingResult.failure(referenceId,
+                    "Rejected by validation: " + String.join("; ", row.problems)));
+                continue;
+            }
+            int shard = shards.shardOf(referenceId);
+            acceptedPerShard[shard]++;
+            accepted.get(shard).put(row.declaration);
+        }
+    }
+
+    /** An interrupted ADD is held back, the other actions are safe to repeat. */
+    private boolean isInDoubt(DeclarationData declaration) {
+        return !retryInterrupted && "ADD".equals(declaration.getAction())
+            && journal.wasInterrupted(declaration.getReferenceId(), declaration.getAction());
+    }
+
+    private Checked check(DeclarationData declaration) {
+        DeclarationData normalized = normalize(declaration);
+        List<String> problems = validationEnabled && !normalized.getReferenceId().isEmpty()
+            ? validator.validate(normalized)
+            : Collections.<String>emptyList();
+        return new Checked(normalized, problems);
+    }
+
+    private void recordStage(RunReport report) {
+        try {
+            ProcessingResult result;
+            while ((result = results.take()) != END_OF_RESULTS) {
+                report.record(result);
+                if (!result.isSuccess()) {
+                    failedIds.add(result.getReferenceId());
+                }
+                settled();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static DeclarationData normalize(DeclarationData d) {
+        return new DeclarationData(
+            trim(d.getReferenceId()),
+            trim(d.getRecipientAddress1()),
+            trim(d.getRecipientAddress2()),
+            trim(d.getRecipientCity()),
+            trim(d.getRecipientState()),
+            trim(d.getRecipientPostCode()),
+            trim(d.getRecipientCountry()),
+            trim(d.getRecipientName()),
+            trim(d.getRecipientTelephone()),
+            trim(d.getRecipientEmail()),
+            trim(d.getItemDescription()),
+            trim(d.getQuantity()),
+            trim(d.getWeight()),
+            trim(d.getItemValue()),
+            trim(d.getCurrency()),
+            trim(d.getAction()).toUpperCase(Locale.ROOT)
+        );
+    }
+
+    private static String trim(String value) {
+        return value == null ? "" : value.trim();
+    }
+
+    private static final class Checked {
+        final DeclarationData declaration;
+        final List<String> problems;
+
+        Checked(DeclarationData declaration, List<String> problems) {
+            this.declaration = declaration;
+            this.problems = problems;
+        }
+    }
+
+    private static <T> void putQuietly(BlockingQueue<T> queue, T item) {
+        try {
+            queue.put(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized void sampleQueueDepths() {
+        for (Map.Entry<String, BlockingQueue<?>> queue : queues.entrySet()) {
+            maxDepths.merge(queue.getKey(), queue.getValue().size(), Math::max);
+        }
+    }
+
+    private void logQueueDepths() {
+        sampleQueueDepths();
+        StringBuilder line = new StringBuilder("Queue depths:");
+        for (Map.Entry<String, BlockingQueue<?>> queue : queues.entrySet()) {
+            line.append(' ').append(queue.getKey()).append('=').append(queue.getValue().size());
+        }
+        Logger.info(line.toString());
+        Logger.info("Portal throttle: " + PortalThrottle.shared().describe());
+    }
+}
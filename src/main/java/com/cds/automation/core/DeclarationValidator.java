@@ -0,0 +1,184 @@
+package com.cds.automation.core;
+
+import com.cds.automation.model.DeclarationData;
+import com.cds.automation.util.Logger;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Checks a normalized row for problems the site would reject it for, so it can
+ * be set aside before any browser work. A country it does not know is only
+ * warned about, since the portal's own list is the one that counts. Safe to
+ * call from any number of threads.
+ */
+final class DeclarationValidator {
+    private static final Pattern QUANTITY = Pattern.compile("0*[1-9][0-9]*");
+    private static final Pattern DECIMAL = Pattern.compile("[0-9]+([.,][0-9]+)?");
+    private static final Pattern EMAIL = Pattern.compile("[^@\\s]+@[^@\\s]+\\.[^@\\s.]+");
+    private static final Pattern TELEPHONE = Pattern.compile("\\+?[0-9 ()./-]+");
+    private static final int MIN_TELEPHONE_DIGITS = 6;
+    private static final int MAX_TELEPHONE_DIGITS = 15;
+
+    private static final List<String> ACTIONS = Arrays.asList("ADD", "UPDATE", "DELETE");
+    // The portal is in Portuguese, so workbooks often name countries the way it does
+    private static final Locale[] COUNTRY_NAME_LOCALES = {
+        Locale.ENGLISH, new Locale("pt", "PT"), new Locale("pt", "BR")};
+    private static final Pattern ACCENTS = Pattern.compile("\\p{M}+");
+    private static final Set<String> CURRENCIES = new HashSet<>();
+    // Country codes, ISO alpha-3 codes and English and Portuguese names without accents,
+    // all resolving to the alpha-2 code
+    private static final Map<String, String> COUNTRIES = new HashMap<>();
+    // Only countries with a single well-defined format, anything else is not checked
+    private static final Map<String, Pattern> POSTCODES = new HashMap<>();
+
+    static {
+        for (Currency currency : Currency.getAvailableCurrencies()) {
+            CURRENCIES.add(currency.getCurrencyCode());
+        }
+        for (String code : Locale.getISOCountries()) {
+            Locale country = new Locale("", code);
+            COUNTRIES.put(code, code);
+            COUNTRIES.put(country.getISO3Country(), code);
+            for (Locale language : COUNTRY_NAME_LOCALES) {
+                COUNTRIES.put(countryKey(country.getDisplayCountry(language)), code);
+            }
+        }
+
+        postcode("AT", "[0-9]{4}");
+        postcode("AU", "[0-9]{4}");
+        postcode("BE", "[0-9]{4}");
+        postcode("BR", "[0-9]{5}-?[0-9]{3}");
+        postcode("CA", "[A-Z][0-9][A-Z] ?[0-9][A-Z][0-9]");
+        postcode("CH", "[0-9]{4}");
+        postcode("DE", "[0-9]{5}");
+        postcode("DK", "[0-9]{4}");
+        postcode("ES", "[0-9]{5}");
+        postcode("FI", "[0-9]{5}");
+        postcode("FR", "[0-9]{5}");
+        postcode("GB", "[A-Z]{1,2}[0-9][A-Z0-9]? ?[0-9][A-Z]{2}");
+        postcode("IN", "[0-9]{6}");
+        postcode("IT", "[0-9]{5}");
+        postcode("JP", "[0-9]{3}-?[0-9]{4}");
+        postcode("NL", "[0-9]{4} ?[A-Z]{2}");
+        postcode("NO", "[0-9]{4}");
+        postcode("PL", "[0-9]{2}-[0-9]{3}");
+        postcode("PT", "[0-9]{4}-[0-9]{3}");
+        postcode("SE", "[0-9]{3} ?[0-9]{2}");
+        postcode("US", "[0-9]{5}(-[0-9]{4})?");
+    }
+
+    private final Set<String> unknownCountries = ConcurrentHashMap.newKeySet();
+
+    private static void postcode(String country, String pattern) {
+        POSTCODES.put(country, Pattern.compile(pattern));
+    }
+
+    /** Returns the problems found in the row, empty if it can be submitted. */
+    List<String> validate(DeclarationData d) {
+        List<String> problems = new ArrayList<>(2);
+        String action = d.getAction();
+        if (!ACTIONS.contains(action)) {
+            problems.add("action '" + action + "' is not one of " + ACTIONS);
+            return problems;
+        }
+        if ("DELETE".equals(action)) {
+            // Only the reference id is used to find the declaration
+            return problems;
+        }
+
+        required(problems, "recipientName", d.getRecipientName());
+        required(problems, "recipientAddress1", d.getRecipientAddress1());
+        required(problems, "recipientCity", d.getRecipientCity());
+        required(problems, "itemDescription", d.getItemDescription());
+
+        matches(problems, "quantity", d.getQuantity(), QUANTITY, "a positive whole number");
+        matches(problems, "weight", d.getWeight(), DECIMAL, "a number");
+        matches(problems, "itemValue", d.getItemValue(), DECIMAL, "a number");
+
+        String currency = d.getCurrency();
+        if (required(problems, "currency", currency) && !CURRENCIES.contains(currency.toUpperCase(Locale.ROOT))) {
+            problems.add("currency '" + currency + "' is not an ISO 4217 code");
+        }
+
+        String country = d.getRecipientCountry();
+        if (required(problems, "recipientCountry", country)) {
+            String code = COUNTRIES.get(countryKey(country));
+            if (code == null) {
+                if (unknownCountries.add(country)) {
+                    Logger.info("recipientCountry '" + country
+                        + "' is not a known country, submitting it without checking the postcode");
+                }
+            } else {
+                checkPostcode(problems, code, d.getRecipientPostCode());
+            }
+        }
+
+        String email = d.getRecipientEmail();
+        if (!email.isEmpty() && !EMAIL.matcher(email).matches()) {
+            problems.add("recipientEmail '" + email + "' is not an email address");
+        }
+
+        String telephone = d.getRecipientTelephone();
+        if (!telephone.isEmpty()) {
+            int digits = countDigits(telephone);
+            if (!TELEPHONE.matcher(telephone).matches()
+                    || digits < MIN_TELEPHONE_DIGITS || digits > MAX_TELEPHONE_DIGITS) {
+                problems.add("recipientTelephone '" + telephone + "' is not a telephone number");
+            }
+        }
+        return problems;
+    }
+
+    private static void checkPostcode(List<String> problems, String country, String postcode) {
+        Pattern format = POSTCODES.get(country);
+        if (format == null) {
+            return;
+        }
+        if (postcode.isEmpty()) {
+            problems.add("recipientPostCode is required for " + country);
+        } else if (!format.matcher(postcode.toUpperCase(Locale.ROOT)).matches()) {
+            problems.add("recipientPostCode '" + postcode + "' does not match the " + country + " format");
+        }
+    }
+
+    /** "Suíça", "suica" and "SUIÇA" all give the same key. */
+    private static String countryKey(String name) {
+        String plain = ACCENTS.matcher(Normalizer.normalize(name.trim(), Normalizer.Form.NFD)).replaceAll("");
+        return plain.toUpperCase(Locale.ROOT);
+    }
+
+    private static boolean required(List<String> problems, String field, String value) {
+        if (value.isEmpty()) {
+            problems.add(field + " is required");
+            return false;
+        }
+        return true;
+    }
+
+    private static void matches(List<String> problems, String field, String value, Pattern format,
+                                String expected) {
+        if (required(problems, field, value) && !format.matcher(value).matches()) {
+            problems.add(field + " '" + value + "' is not " + expected);
+        }
+    }
+
+    private static int countDigits(String value) {
+        int digits = 0;
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.isDigit(value.charAt(i))) {
+                digits++;
+            }
+        }
+        return digits;
+    }
+}
@@ -0,0 +1,149 @@
+package com.cds.automation.core;
+
+import com.cds.automation.config.AppConfig;
+import com.cds.automation.http.HtmlForm;
+import com.cds.automation.http.WebFormsClient;
+import com.cds.automation.metrics.Metrics;
+import com.cds.automation.model.DeclarationData;
+import com.cds.automation.ui.SessionHealth;
+import com.cds.automation.util.Logger;
+import com.cds.automation.util.RetryPolicy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Drives the declaration form by posting the WebForms postbacks directly instead
+ * of through a browser. Field and button ids are the same ones the Selenium
+ * engine uses; {@link HtmlForm} maps them to the posted control names.
+ */
+public class HttpSubmitter implements Submitter {
+    private static final String CONFIRM_BUTTON_TEXT = "Confirmar e continuar";
+    private static final String SEARCH_FIELD = "ContentPlaceHolder1_txtItemId";
+
+    private final WebFormsClient client = new WebFormsClient(AppConfig.getPageLoadTimeout());
+    private final RetryPolicy retry = RetryPolicy.fromConfig();
+    private final SessionHealth health = SessionHealth.fromConfig();
+    private final String[] credentials;
+    private String[] senderInfo;
+    private String homeUrl;
+    private HtmlForm page;
+
+    public HttpSubmitter(String[] credentials, String[] senderInfo) {
+        this.credentials = credentials;
+        this.senderInfo = senderInfo;
+    }
+
+    @Override
+    public void login() {
+        Logger.info("Performing HTTP login operation");
+        Metrics.time("login", () -> retry.call("login", () -> {
+            HtmlForm loginPage = client.get(credentials[2]);
+            loginPage.set("txtUsername", credentials[0]);
+            loginPage.set("txtPassword", credentials[1]);
+            page = client.click(loginPage, "btnLogin");
+            if (!page.hasElement(SEARCH_FIELD)) {
+                throw new IllegalStateException("Login did not reach the declaration search page");
+            }
+            homeUrl = page.getUrl().toString();
+            health.loggedIn();
+            Logger.info("Login successful");
+            return null;
+        }));
+    }
+
+    @Override
+    public void setSenderInfo(String[] senderInfo) {
+        this.senderInfo = senderInfo;
+    }
+
+    @Override
+    public ProcessingResult process(DeclarationData declaration) {
+        try {
+            retry.call("declaration " + declaration.getReferenceId(), () -> {
+                processOnce(declaration);
+                return null;
+            });
+            return ProcessingResult.success(declaration.getReferenceId());
+        } catch (Exception e) {
+            Logger.error("Error processing declaration " + declaration.getReferenceId() + ": " + e.getMessage());
+            return ProcessingResult.failure(declaration.getReferenceId(), e);
+        }
+    }
+
+    private void processOnce(DeclarationData declaration) throws IOException {
+        ensureOnSearchPage();
+        step("searchDeclaration", () -> searchDeclaration(declaration.getReferenceId()));
+
+        switch (declaration.getAction().toUpperCase()) {
+            case "ADD":
+                insertDeclarationData(declaration);
+                break;
+            case "UPDATE":
+                page = client.click(page, "ContentPlaceHolder1_btnEdit");
+                insertDeclarationData(declaration);
+                break;
+            case "DELETE":
+                step("deleteDeclaration",
+                    () -> page = confirmPopup(client.click(page, "ContentPlaceHolder1_btnDelete")));
+                break;
+            default:
+                throw new IllegalArgumentException("Invalid action: " + declaration.getAction());
+        }
+    }
+
+    private void ensureOnSearchPage() throws IOException {
+        if (health.isRefreshDue()) {
+            Logger.info("Renewing session: refresh interval reached");
+            login();
+            return;
+        }
+        if (page != null && page.hasElement(SEARCH_FIELD)) {
+            return;
+        }
+        page = client.get(homeUrl);
+        if (!page.hasElement(SEARCH_FIELD)) {
+            // Server-side session expired; start a fresh one before retrying the row
+            login();
+        }
+    }
+
+    private void searchDeclaration(String referenceId) throws IOException {
+        page.set(SEARCH_FIELD, referenceId);
+        page = confirmPopup(client.click(page, "ContentPlaceHolder1_btnOk"));
+    }
+
+    private void insertDeclarationData(DeclarationData declaration) throws IOException {
+        page.setAll(DeclarationFields.sender(senderInfo));
+        page.setAll(DeclarationFields.recipient(declaration));
+        page.setAll(DeclarationFields.item(declaration));
+        step("submitDeclaration", () -> page = confirmPopup(client.click(page, "ContentPlaceHolder1_btnSubmit")));
+    }
+
+    private HtmlForm confirmPopup(HtmlForm response) throws IOException {
+        String[] confirm = response.buttonWithText(CONFIRM_BUTTON_TEXT);
+        return confirm != null ? client.click(response, confirm) : response;
+    }
+
+    private interface HttpStep {
+        void run() throws IOException;
+    }
+
+    private static void step(String name, HttpStep step) throws IOException {
+        try {
+            Metrics.time(name, () -> {
+                try {
+                    step.run();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    public void close() {
+        page = null;
+    }
+}
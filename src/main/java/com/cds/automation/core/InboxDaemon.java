@@ -0,0 +1,257 @@
+package com.cds.automation.core;
+
+import com.cds.automation.config.AppConfig;
+import com.cds.automation.util.Logger;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Long-running mode: watches an inbox directory and runs every workbook that
+ * lands in it, at most {@code daemon.max.files} at a time, on browser sessions
+ * that stay logged in between files. A finished workbook moves to the done
+ * directory, or to the failed one if the run broke off or any row failed,
+ * together with its journal, its rejects file and a results CSV. Moving the
+ * workbook and its journal back into the inbox retries only the rows that did
+ * not go through.
+ */
+public class InboxDaemon implements AutoCloseable {
+    private static final DateTimeFormatter FILE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    // Written next to the workbook by a run and moved along with it
+    private static final String[] COMPANIONS = {".journal", ".rejects.csv"};
+
+    private final Path inbox;
+    private final Path done;
+    private final Path failed;
+    private final long settleMillis;
+    private final SubmitterPool submitters;
+    private final ExecutorService files;
+    private final Set<Path> pending = ConcurrentHashMap.newKeySet();
+    private volatile WatchService watcher;
+    private volatile boolean closing;
+
+    public InboxDaemon(Path inbox, Path done, Path failed, int maxFiles, long settleMillis,
+                       SubmitterPool submitters) {
+        this.inbox = inbox;
+        this.done = done;
+        this.failed = failed;
+        this.settleMillis = settleMillis;
+        this.submitters = submitters;
+        AtomicInteger threads = new AtomicInteger();
+        this.files = Executors.newFixedThreadPool(Math.max(1, maxFiles),
+            task -> new Thread(task, "inbox-" + threads.incrementAndGet()));
+    }
+
+    /** The inbox defaults to {@code daemon.inbox}, with done and failed directories inside it. */
+    public static InboxDaemon fromConfig(String inboxOverride) throws IOException {
+        Path inbox = Paths.get(inboxOverride != null ? inboxOverride : AppConfig.getDaemonInbox());
+        String done = AppConfig.getDaemonDoneDirectory();
+        String failed = AppConfig.getDaemonFailedDirectory();
+        return new InboxDaemon(inbox,
+            done.isEmpty() ? inbox.resolve("done") : Paths.get(done),
+            failed.isEmpty() ? inbox.resolve("failed") : Paths.get(failed),
+            AppConfig.getDaemonMaxFiles(), AppConfig.getDaemonSettleTime(),
+            SubmitterPool.fromConfig(AppConfig.isDaemonHeadless(), true));
+    }
+
+    /** Watches the inbox until {@link #close()} is called. */
+    public void run() throws IOException, InterruptedException {
+        Files.createDirectories(inbox);
+        Files.createDirectories(done);
+        Files.createDirectories(failed);
+        warmUp();
+
+        try (WatchService service = inbox.getFileSystem().newWatchService()) {
+            watcher = service;
+            inbox.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            Logger.info("Watching " + inbox.toAbsolutePath() + " for workbooks");
+            // Registered first, so nothing that lands during the scan is missed
+            scan();
+            while (true) {
+                WatchKey key = service.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        scan();
+                    } else {
+                        offer(inbox.resolve((Path) event.context()));
+                    }
+                }
+                if (!key.reset()) {
+                    throw new IOException("Inbox " + inbox + " is no longer accessible");
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            Logger.info("Stopped watching " + inbox);
+        }
+    }
+
+    /** Logs in the configured accounts ahead of the first file; workbook-only accounts log in on first use. */
+    private void warmUp() {
+        List<String[]> accounts = AppConfig.getAccounts();
+        for (int i = 0; i < accounts.size(); i++) {
+            String[] account = accounts.get(i);
+            if (!account[2].isEmpty()) {
+                submitters.warmUp(account, AccountShards.workersFor(i, accounts.size(),
+                    AppConfig.getWorkerCount(), AppConfig.getAccountMaxWorkers()));
+            }
+        }
+    }
+
+    private void scan() throws IOException {
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(inbox)) {
+            for (Path entry : entries) {
+                offer(entry);
+            }
+        }
+    }
+
+    private void offer(Path file) {
+        String name = file.getFileName().toString();
+        // Skips Excel's ~$ lock files and hidden partial downloads
+        if (!name.toLowerCase(Locale.ROOT).endsWith(".xlsx") || name.startsWith("~$") || name.startsWith(".")
+                || !Files.isRegularFile(file)) {
+            return;
+        }
+        if (pending.add(file)) {
+            files.execute(() -> process(file));
+        }
+    }
+
+    private void process(Path file) {
+        try {
+            if (closing || !awaitSettled(file)) {
+                return;
+            }
+            Logger.info("Processing " + file.getFileName());
+            RunReport report = null;
+            Exception error = null;
+            try {
+                report = new CustomsDeclarationAutomator(file.toString(), submitters).execute();
+            } catch (Exception e) {
+                error = e;
+                Logger.error("Run of " + file.getFileName() + " failed: " + e.getMessage());
+            }
+
+            boolean succeeded = error == null && report.getFailureCount() == 0;
+            if (closing && !succeeded) {
+                // Its failures may only be the sessions closing under it: the journal resumes it next start
+                Logger.info("Leaving " + file.getFileName() + " in the inbox, it was cut short by the shutdown");
+                return;
+            }
+            Path target = destination(succeeded ? done : failed, file.getFileName().toString());
+            Files.move(file, target, StandardCopyOption.REPLACE_EXISTING);
+            for (String companion : COMPANIONS) {
+                Path source = file.resolveSibling(file.getFileName() + companion);
+                if (Files.exists(source)) {
+                    Files.move(source, target.resolveSibling(target.getFileName() + companion),
+                        StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            if (report != null) {
+                report.writeTo(target.resolveSibling(target.getFileName() + ".results.csv"));
+            }
+            if (error != null) {
+                writeError(target.resolveSibling(target.getFileName() + ".error.txt"), error);
+            }
+            Logger.info(String.format("Moved %s to %s (%s)", file.getFileName(), target,
+                report == null ? "run failed" : report.getSuccessCount() + " succeeded, "
+                    + report.getFailureCount() + " failed"));
+        } catch (IOException e) {
+            Logger.error("Could not file away " + file + ": " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pending.remove(file);
+        }
+    }
+
+    /**
+     * Waits until the file has stopped changing for the settle time, so a copy
+     * still in progress is not read. Returns false if it disappears meanwhile.
+     */
+    private boolean awaitSettled(Path file) throws InterruptedException {
+        long size = -1;
+        long modified = -1;
+        while (true) {
+            try {
+                long currentSize = Files.size(file);
+                long currentModified = Files.getLastModifiedTime(file).toMillis();
+                if (currentSize == size && currentModified == modified) {
+                    return true;
+                }
+                size = currentSize;
+                modified = currentModified;
+            } catch (IOException e) {
+                Logger.info(file.getFileName() + " left the inbox before it was processed");
+                return false;
+            }
+            Thread.sleep(settleMillis);
+        }
+    }
+
+    /** A path in the directory that does not clash with an earlier file of the same name. */
+    private static Path destination(Path directory, String name) {
+        Path target = directory.resolve(name);
+        if (!Files.exists(target)) {
+            return target;
+        }
+        int dot = name.lastIndexOf('.');
+        String stamp = "-" + LocalDateTime.now().format(FILE_STAMP);
+        return directory.resolve(name.substring(0, dot) + stamp + name.substring(dot));
+    }
+
+    private static void writeError(Path path, Exception error) throws IOException {
+        try (Writer out = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+             PrintWriter printer = new PrintWriter(out)) {
+            error.printStackTrace(printer);
+        }
+    }
+
+    /**
+     * Stops watching, gives the files in progress {@code daemon.shutdown.grace}
+     * seconds to finish and logs out of the kept sessions. A file cut short stays
+     * in the inbox with its journal and resumes on the next start.
+     */
+    @Override
+    public void close() {
+        closing = true;
+        WatchService service = watcher;
+        if (service != null) {
+            try {
+                service.close();
+            } catch (IOException e) {
+                Logger.error("Error closing inbox watcher: " + e.getMessage());
+            }
+        }
+        files.shutdown();
+        try {
+            if (!files.awaitTermination(AppConfig.getDaemonShutdownGrace(), TimeUnit.SECONDS)) {
+                Logger.error("Files still in progress at shutdown stay in the inbox: " + pending);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        submitters.close();
+    }
+}
@@ -0,0 +1,32 @@
+package com.cds.automation.core;
+
+public class ProcessingResult {
+    private final String referenceId;
+    private final boolean success;
+    private final String errorMessage;
+    private final Exception error;
+
+    private ProcessingResult(String referenceId, boolean success, String errorMessage, Exception error) {
+        this.referenceId = referenceId;
+        this.success = success;
+        this.errorMessage = errorMessage;
+        this.error = error;
+    }
+
+    public static ProcessingResult success(String referenceId) {
+        return new ProcessingResult(referenceId, true, null, null);
+    }
+
+    public static ProcessingResult failure(String referenceId, Exception e) {
+        return new ProcessingResult(referenceId, false, e.getMessage(), e);
+    }
+
+    public static ProcessingResult failure(String referenceId, String errorMessage) {
+        return new ProcessingResult(referenceId, false, errorMessage, null);
+    }
+
+    public String getReferenceId() { return referenceId; }
+    public boolean isSuccess() { return success; }
+    public String getErrorMessage() { return errorMessage; }
+    public Exception getError() { return error; }
+}
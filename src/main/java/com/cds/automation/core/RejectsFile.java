@@ -0,0 +1,88 @@
+package com.cds.automation.core;
+
+import com.cds.automation.model.DeclarationData;
+import com.cds.automation.util.Logger;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * CSV of the rows that failed validation, with the reasons and the values as
+ * read, so they can be corrected in the workbook and run again. The file is
+ * only created once the first row is rejected.
+ */
+public class RejectsFile implements AutoCloseable {
+    private static final String HEADER = "referenceId,problems,recipientName,recipientAddress1,"
+        + "recipientAddress2,recipientPostCode,recipientCity,recipientState,recipientCountry,"
+        + "recipientEmail,recipientTelephone,itemDescription,quantity,weight,itemValue,currency\n";
+
+    private final Path path;
+    private Writer out;
+    private int count;
+
+    private RejectsFile(Path path) {
+        this.path = path;
+    }
+
+    /** Removes the rejects of an earlier run, they are written again if still invalid. */
+    public static RejectsFile open(Path path) throws IOException {
+        Files.deleteIfExists(path);
+        return new RejectsFile(path);
+    }
+
+    public synchronized void reject(DeclarationData d, List<String> problems) {
+        try {
+            if (out == null) {
+                out = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+                out.write(HEADER);
+            }
+            StringBuilder line = new StringBuilder(256);
+            field(line, d.getReferenceId());
+            field(line, String.join("; ", problems));
+            field(line, d.getRecipientName());
+            field(line, d.getRecipientAddress1());
+            field(line, d.getRecipientAddress2());
+            field(line, d.getRecipientPostCode());
+            field(line, d.getRecipientCity());
+            field(line, d.getRecipientState());
+            field(line, d.getRecipientCountry());
+            field(line, d.getRecipientEmail());
+            field(line, d.getRecipientTelephone());
+            field(line, d.getItemDescription());
+            field(line, d.getQuantity());
+            field(line, d.getWeight());
+            field(line, d.getItemValue());
+            field(line, d.getCurrency());
+            line.setCharAt(line.length() - 1, '\n');
+            out.write(line.toString());
+            count++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write rejects file " + path, e);
+        }
+    }
+
+    public synchronized int getCount() {
+        return count;
+    }
+
+    static void field(StringBuilder line, String value) {
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0) {
+            line.append('"').append(value.replace("\"", "\"\"")).append('"');
+        } else {
+            line.append(value);
+        }
+        line.append(',');
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (out != null) {
+            out.close();
+            Logger.info(count + " rejected row(s) written to " + path);
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.cds.automation.core;
+
+import com.cds.automation.model.DeclarationData;
+import com.cds.automation.util.Logger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Index of the last row of every reference id, built in a first pass over the
+ * file. During the submitting pass only that row is let through, so a
+ * declaration that was exported several times is filled once with its latest
+ * values instead of once per copy.
+ *
+ * The operations of the merged rows are collapsed too, into at most a DELETE of
+ * the declaration already on the site followed by one ADD or UPDATE:
+ * <ul>
+ * <li>an UPDATE after an ADD or UPDATE is folded into it, with the later values;</li>
+ * <li>an ADD followed by a DELETE cancels out, nothing is submitted, unless the
+ *     journal shows an earlier run already added the id: then the DELETE goes;</li>
+ * <li>a DELETE followed by an ADD stays two operations, in that order: the
+ *     pipeline submits the groups of {@link #actionGroups()} one after the other
+ *     and starts a group only when the one before has finished;</li>
+ * <li>otherwise the later action replaces the earlier one.</li>
+ * </ul>
+ *
+ * Rows are identified by their position in the stream, which is why both passes
+ * must read the same file with the same reader. The index is an open-addressing
+ * table of ids and three int arrays, a few dozen bytes per distinct id.
+ */
+public class RowCoalescer {
+    // Deletes first so their ids are free again, then edits of existing declarations, then new ones
+    private static final List<String> ACTION_ORDER = Arrays.asList("DELETE", "UPDATE", "ADD");
+
+    private final boolean enabled;
+    private final CheckpointJournal journal;
+    private String[] ids = new String[1024];
+    private String[] actions = new String[1024];
+    private int[] lastRow = new int[1024];
+    private int[] rowCount = new int[1024];
+    private int[] deleteRow = new int[1024];
+    private int size;
+    private int rows;
+
+    private RowCoalescer(boolean enabled, CheckpointJournal journal) {
+        this.enabled = enabled;
+        this.journal = journal;
+    }
+
+    /**
+     * Lets every row through unchanged, in file order. Without the index there is
+     * no way to order the operations per id, so this also turns off submitting
+     * the actions in groups: {@link #actionGroups()} returns a single pass.
+     */
+    public static RowCoalescer disabled() {
+        return new RowCoalescer(false, null);
+    }
+
+    /** The journal tells which ADDs an earlier run already put on the site. */
+    public static RowCoalescer index(Stream<DeclarationData> declarations, CheckpointJournal journal) {
+        RowCoalescer index = new RowCoalescer(true, journal);
+        Iterator<DeclarationData> rows = declarations.iterator();
+        while (rows.hasNext()) {
+            DeclarationData row = rows.next();
+            index.add(key(row), action(row), index.rows++);
+        }
+        return index;
+    }
+
+    /**
+     * Returns the row to submit, carrying the collapsed action, or null when the
+     * row was folded into another row of the same reference id or cancelled out.
+     */
+    public DeclarationData resolve(DeclarationData declaration, int row) {
+        String id = key(declaration);
+        if (!enabled || id.isEmpty()) {
+            return declaration;
+        }
+        int slot = find(id);
+        if (ids[slot] == null) {
+            return declaration;
+        }
+        if (deleteRow[slot] == row) {
+            return withAction(declaration, "DELETE");
+        }
+        if (lastRow[slot] != row || actions[slot] == null) {
+            return null;
+        }
+        return withAction(declaration, actions[slot]);
+    }
+
+    private static DeclarationData withAction(DeclarationData declaration, String action) {
+        return action.equals(action(declaration)) ? declaration : declaration.withAction(action);
+    }
+
+    /**
+     * The actions to submit one after the other so rows of the same action run
+     * together; a single null entry when the file is submitted in one pass.
+     */
+    public List<String> actionGroups() {
+        TreeSet<String> present = new TreeSet<>();
+        for (int slot = 0; slot < ids.length; slot++) {
+            if (actions[slot] != null) {
+                present.add(actions[slot]);
+            }
+            if (ids[slot] != null && deleteRow[slot] >= 0) {
+                present.add("DELETE");
+            }
+        }
+        if (present.size() < 2) {
+            return Collections.singletonList(null);
+        }
+
+        List<String> groups = new ArrayList<>();
+        for (String action : ACTION_ORDER) {
+            if (present.remove(action)) {
+                groups.add(action);
+            }
+        }
+        // Unknown actions go last, validation rejects them
+        groups.addAll(present);
+        return groups;
+    }
+
+    public void printSummary() {
+        int merged = 0;
+        int superseded = 0;
+        for (int slot = 0; slot < ids.length; slot++) {
+            if (ids[slot] != null && rowCount[slot] > 1) {
+                merged++;
+                superseded += rowCount[slot] - (deleteRow[slot] >= 0 ? 1 : 0) - (actions[slot] != null ? 1 : 0);
+            }
+        }
+        if (merged == 0) {
+            return;
+        }
+
+        Logger.info(String.format("Coalesced %d duplicate row(s) of %d declaration(s) into their net operations",
+            superseded, merged));
+        for (int slot = 0; slot < ids.length; slot++) {
+            if (ids[slot] != null && rowCount[slot] > 1) {
+                Logger.info("  MERGED " + ids[slot] + ": " + rowCount[slot] + " rows, " + describe(slot));
+            }
+        }
+    }
+
+    private String describe(int slot) {
+        if (actions[slot] == null) {
+            return deleteRow[slot] >= 0 ? "submitting a DELETE" : "added and deleted again, submitting nothing";
+        }
+        return deleteRow[slot] >= 0
+            ? "submitting a DELETE, then the last as " + actions[slot]
+            : "submitting the last as " + actions[slot];
+    }
+
+    private void add(String id, String action, int row) {
+        if (id.isEmpty()) {
+            return;
+        }
+        int slot = find(id);
+        if (ids[slot] == null) {
+            ids[slot] = id;
+            rowCount[slot] = 1;
+            deleteRow[slot] = -1;
+            fold(slot, id, action, row);
+            if (++size * 2 > ids.length) {
+                grow();
+            }
+            return;
+        }
+        rowCount[slot]++;
+        fold(slot, id, action, row);
+    }
+
+    /**
+     * Applies the row's action to what is queued for the id: an optional DELETE
+     * of the existing declaration ({@code deleteRow}) and then an optional ADD or
+     * UPDATE ({@code actions}, null for none, with the values of {@code lastRow}).
+     */
+    private void fold(int slot, String id, String action, int row) {
+        String queued = actions[slot];
+        switch (action) {
+            case "UPDATE":
+                // Folded into a queued ADD, which then carries the later values
+                if (!"ADD".equals(queued)) {
+                    actions[slot] = action;
+                }
+                lastRow[slot] = row;
+                break;
+            case "DELETE":
+                if (!"ADD".equals(queued) || journal.isCommitted(id, "ADD")) {
+                    // Deletes what was on the site before the file, or fails like the row would have
+                    deleteRow[slot] = row;
+                }
+                // Otherwise the ADD in the same file never reached the site: the two cancel out
+                actions[slot] = null;
+                break;
+            default:
+                actions[slot] = action;
+                lastRow[slot] = row;
+                break;
+        }
+    }
+
+    private int find(String id) {
+        int mask = ids.length - 1;
+        int slot = mix(id.hashCode()) & mask;
+        while (ids[slot] != null && !ids[slot].equals(id)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        String[] oldIds = ids;
+        String[] oldActions = actions;
+        int[] oldLast = lastRow;
+        int[] oldCount = rowCount;
+        int[] oldDelete = deleteRow;
+        ids = new String[oldIds.length * 2];
+        actions = new String[ids.length];
+        lastRow = new int[ids.length];
+        rowCount = new int[ids.length];
+        deleteRow = new int[ids.length];
+        for (int i = 0; i < oldIds.length; i++) {
+            if (oldIds[i] != null) {
+                int slot = find(oldIds[i]);
+                ids[slot] = oldIds[i];
+                actions[slot] = oldActions[i];
+                lastRow[slot] = oldLast[i];
+                rowCount[slot] = oldCount[i];
+                deleteRow[slot] = oldDelete[i];
+            }
+        }
+    }
+
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static String key(DeclarationData declaration) {
+        String id = declaration.getReferenceId();
+        return id == null ? "" : id.trim();
+    }
+
+    static String action(DeclarationData declaration) {
+        String action = declaration.getAction();
+        return action == null ? "" : action.trim().toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,59 @@
+package com.cds.automation.core;
+
+import com.cds.automation.util.Logger;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class RunReport {
+    private final List<ProcessingResult> results = new ArrayList<>();
+
+    public synchronized void record(ProcessingResult result) {
+        results.add(result);
+    }
+
+    public synchronized List<ProcessingResult> getResults() {
+        return new ArrayList<>(results);
+    }
+
+    public synchronized int getSuccessCount() {
+        int count = 0;
+        for (ProcessingResult result : results) {
+            if (result.isSuccess()) count++;
+        }
+        return count;
+    }
+
+    public synchronized int getFailureCount() {
+        return results.size() - getSuccessCount();
+    }
+
+    public synchronized void printSummary() {
+        Logger.info(String.format("Processed %d declarations: %d succeeded, %d failed",
+            results.size(), getSuccessCount(), getFailureCount()));
+        for (ProcessingResult result : results) {
+            if (!result.isSuccess()) {
+                Logger.info("  FAILED " + result.getReferenceId() + ": " + result.getErrorMessage());
+            }
+        }
+    }
+
+    /** Writes one line per row, success or failure with the reason, as CSV. */
+    public synchronized void writeTo(Path csv) throws IOException {
+        try (Writer out = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            out.write("referenceId,status,error\n");
+            for (ProcessingResult result : results) {
+                StringBuilder line = new StringBuilder();
+                RejectsFile.field(line, result.getReferenceId());
+                RejectsFile.field(line, result.isSuccess() ? "OK" : "FAILED");
+                RejectsFile.field(line, result.getErrorMessage() == null ? "" : result.getErrorMessage());
+                line.setCharAt(line.length() - 1, '\n');
+                out.write(line.toString());
+            }
+        }
+    }
+}
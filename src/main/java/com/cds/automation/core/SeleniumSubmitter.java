@@ -0,0 +1,261 @@
+package com.cds.automation.core;
+
+import com.cds.automation.config.AppConfig;
+import com.cds.automation.metrics.Metrics;
+import com.cds.automation.ui.ElementCache;
+import com.cds.automation.ui.FormFiller;
+import com.cds.automation.ui.FormSection;
+import com.cds.automation.ui.SessionHealth;
+import com.cds.automation.ui.SessionStore;
+import com.cds.automation.ui.WebDriverConfig;
+import com.cds.automation.ui.WebDriverManager;
+import com.cds.automation.ui.WebElementHandler;
+import com.cds.automation.ui.WebElementWait;
+import com.cds.automation.model.DeclarationData;
+import com.cds.automation.util.Logger;
+import com.cds.automation.util.PortalThrottle;
+import com.cds.automation.util.RetryPolicy;
+import org.openqa.selenium.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class SeleniumSubmitter implements Submitter {
+    private final WebDriver driver;
+    private final String[] credentials;
+    private String[] senderInfo;
+    private final SessionStore sessions;
+    private final String sessionKey;
+    private final boolean fastFill = AppConfig.isFastFillEnabled();
+    private final RetryPolicy retry = RetryPolicy.fromConfig();
+    private final PortalThrottle throttle = PortalThrottle.shared();
+    private final SessionHealth health = SessionHealth.fromConfig();
+    private final ElementCache elements;
+
+    public SeleniumSubmitter(WebDriver driver, String[] credentials, String[] senderInfo,
+                             SessionStore sessions, String slot) {
+        this.driver = driver;
+        this.credentials = credentials;
+        this.senderInfo = senderInfo;
+        this.sessions = sessions;
+        this.sessionKey = credentials[0] + "|" + credentials[2] + "|" + slot;
+        this.elements = new ElementCache(driver);
+    }
+
+    @Override
+    public void login() {
+        if (throttle.call("restore session", () -> sessions.restore(driver, sessionKey))) {
+            if (isOnSearchPage()) {
+                Logger.info("Reusing saved session, skipping login");
+                health.loggedIn(driver);
+                return;
+            }
+            Logger.info("Saved session is no longer valid, logging in again");
+            sessions.invalidate(sessionKey);
+            driver.manage().deleteAllCookies();
+        }
+        WebDriverManager.login(driver, credentials[0], credentials[1], credentials[2]);
+        sessions.save(driver, sessionKey);
+        health.loggedIn(driver);
+    }
+
+    private void ensureSession() {
+        String reason = health.check(driver);
+        if (reason != null) {
+            relogin(reason);
+        }
+    }
+
+    private void relogin(String reason) {
+        Logger.info("Renewing session: " + reason);
+        sessions.invalidate(sessionKey);
+        driver.manage().deleteAllCookies();
+        Metrics.time("relogin", () -> {
+            WebDriverManager.login(driver, credentials[0], credentials[1], credentials[2]);
+            sessions.save(driver, sessionKey);
+            health.loggedIn(driver);
+        });
+    }
+
+    private boolean isOnSearchPage() {
+        WebElementWait.waitForPageReady(driver);
+        return !driver.findElements(By.id("ContentPlaceHolder1_txtItemId")).isEmpty();
+    }
+
+    @Override
+    public void setSenderInfo(String[] senderInfo) {
+        this.senderInfo = senderInfo;
+    }
+
+    @Override
+    public boolean isUsable() {
+        try {
+            driver.getWindowHandle();
+            return true;
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public ProcessingResult process(DeclarationData declaration) {
+        try {
+            retry.run("declaration " + declaration.getReferenceId(), () -> {
+                ensureSession();
+                Metrics.time("searchDeclaration", () -> searchDeclaration(declaration.getReferenceId()));
+
+                switch (declaration.getAction().toUpperCase()) {
+                    case "ADD":
+                        insertDeclarationData(declaration);
+                        break;
+                    case "UPDATE":
+                        updateDeclarationData(declaration);
+                        break;
+                    case "DELETE":
+                        Metrics.time("deleteDeclaration", this::deleteDeclaration);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Invalid action: " + declaration.getAction());
+                }
+            });
+            return ProcessingResult.success(declaration.getReferenceId());
+        } catch (TimeoutException e) {
+            handleTimeout(e, declaration.getReferenceId());
+            return ProcessingResult.failure(declaration.getReferenceId(), e);
+        } catch (Exception e) {
+            handleError(e, declaration.getReferenceId());
+            return ProcessingResult.failure(declaration.getReferenceId(), e);
+        }
+    }
+
+    private void searchDeclaration(String referenceId) {
+        submitSearch(referenceId);
+        if (health.isOnLoginPage(driver)) {
+            // The session ended between the health check and the search
+            relogin("search was redirected to the login page");
+            submitSearch(referenceId);
+        }
+
+        if (throttle.call("search popup", () -> WebElementHandler.handlePopup(driver))) {
+            WebElementHandler.waitForElement(driver,
+                By.id("ContentPlaceHolder1_txtItemId"), 10);
+        }
+    }
+
+    private void submitSearch(String referenceId) {
+        WebElement searchField = WebElementHandler.waitForElementToBeClickable(
+            driver, By.id("ContentPlaceHolder1_txtItemId"), 20);
+        searchField.clear();
+        searchField.sendKeys(referenceId);
+
+        throttle.run("search", () -> {
+            WebElementHandler.retryOnStaleElement(() ->
+                WebElementWait.click(driver, driver.findElement(By.id("ContentPlaceHolder1_btnOk"))));
+            WebElementWait.waitForPageReady(driver);
+        });
+    }
+
+    private void insertDeclarationData(DeclarationData declaration) {
+        Metrics.time("fillSenderInformation", () -> fillSenderInformation(senderInfo));
+        Metrics.time("fillRecipientInformation", () -> fillRecipientInformation(declaration));
+        Metrics.time("fillItemInformation", () -> fillItemInformation(declaration));
+        Metrics.time("submitDeclaration", this::submitDeclaration);
+    }
+
+    private void updateDeclarationData(DeclarationData declaration) {
+        WebElement updateButton = WebElementHandler.waitForElementToBeClickable(
+            driver, By.id("ContentPlaceHolder1_btnEdit"), 10);
+        throttle.run("edit", () -> {
+            WebElementWait.click(driver, updateButton);
+            WebElementWait.waitForPageReady(driver);
+        });
+
+        insertDeclarationData(declaration);
+    }
+
+    private void deleteDeclaration() {
+        WebElement deleteButton = WebElementHandler.waitForElementToBeClickable(
+            driver, By.id("ContentPlaceHolder1_btnDelete"), 10);
+        throttle.run("delete", () -> {
+            WebElementWait.click(driver, deleteButton);
+            WebElementHandler.handlePopup(driver);
+        });
+    }
+
+    private void fillSenderInformation(String[] senderInfo) {
+        Map<String, String> fields = DeclarationFields.sender(senderInfo);
+        WebElementHandler.retryOnException(() -> fillSection(DeclarationFields.SENDER, fields));
+    }
+
+    private void fillRecipientInformation(DeclarationData declaration) {
+        Map<String, String> fields = DeclarationFields.recipient(declaration);
+        WebElementHandler.retryOnException(() -> fillSection(DeclarationFields.RECIPIENT, fields));
+    }
+
+    private void fillItemInformation(DeclarationData declaration) {
+        Map<String, String> fields = DeclarationFields.item(declaration);
+        WebElementHandler.retryOnException(() -> fillSection(DeclarationFields.ITEM, fields));
+    }
+
+    private void fillSection(FormSection section, Map<String, String> fields) {
+        try {
+            if (!fastFill) {
+                Map<String, WebElement> inputs = elements.resolve(section);
+                fields.forEach((id, value) -> type(inputs.get(id), value));
+                return;
+            }
+
+            Map<String, String> scripted = new LinkedHashMap<>();
+            for (Map.Entry<String, String> field : fields.entrySet()) {
+                if (!section.isKeystroke(field.getKey())) {
+                    scripted.put(field.getKey(), field.getValue());
+                }
+            }
+            FormFiller.fillFields(driver, scripted);
+            Map<String, WebElement> inputs = elements.resolve(section);
+            for (Map.Entry<String, String> field : fields.entrySet()) {
+                if (section.isKeystroke(field.getKey())) {
+                    type(inputs.get(field.getKey()), field.getValue());
+                }
+            }
+        } catch (StaleElementReferenceException e) {
+            // The page changed without removing nodes the marker watches; resolve afresh on retry
+            elements.invalidate();
+            throw e;
+        }
+    }
+
+    private static void type(WebElement element, String value) {
+        element.clear();
+        element.sendKeys(value);
+    }
+
+    private void submitDeclaration() {
+        WebElementHandler.retryOnException(() -> {
+            WebElement submitButton = WebElementHandler.waitForElementToBeClickable(
+                driver, By.id("ContentPlaceHolder1_btnSubmit"), 10);
+            throttle.run("submit", () -> {
+                WebElementWait.click(driver, submitButton);
+                WebElementHandler.handlePopup(driver);
+            });
+        });
+    }
+
+    private void handleTimeout(TimeoutException e, String referenceId) {
+        Logger.error("Timeout occurred while processing declaration " + referenceId + ": " + e.getMessage());
+        try {
+            throttle.run("refresh", () -> driver.navigate().refresh());
+            login();
+        } catch (Exception loginError) {
+            Logger.error("Re-login after timeout failed: " + loginError.getMessage());
+        }
+    }
+
+    private void handleError(Exception e, String referenceId) {
+        Logger.error("Error processing declaration " + referenceId + ": " + e.getMessage());
+    }
+
+    @Override
+    public void close() {
+        WebDriverConfig.cleanupDriver(driver);
+    }
+}
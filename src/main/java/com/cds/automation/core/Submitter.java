@@ -0,0 +1,24 @@
+package com.cds.automation.core;
+
+import com.cds.automation.model.DeclarationData;
+
+/**
+ * One logged-in session against the customs portal. Each worker owns exactly one
+ * submitter at a time, so implementations do not need to be thread-safe.
+ */
+public interface Submitter extends AutoCloseable {
+    void login();
+
+    /** Sender details for the file being processed; a kept session serves several files. */
+    void setSenderInfo(String[] senderInfo);
+
+    /** Whether an idle session can be handed out again without starting over. */
+    default boolean isUsable() {
+        return true;
+    }
+
+    ProcessingResult process(DeclarationData declaration);
+
+    @Override
+    void close();
+}
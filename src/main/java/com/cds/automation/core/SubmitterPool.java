@@ -0,0 +1,141 @@
+package com.cds.automation.core;
+
+import com.cds.automation.config.AppConfig;
+import com.cds.automation.ui.BrowserLauncher;
+import com.cds.automation.ui.SessionStore;
+import com.cds.automation.util.Logger;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hands logged-in submitters to the workers. A single run closes each one when
+ * its worker is done; a long-running process keeps them instead, per account,
+ * so the next file reuses the browser and its login rather than paying for
+ * Chrome startup and a login again.
+ */
+public class SubmitterPool implements AutoCloseable {
+    private final BrowserLauncher browsers;
+    private final SessionStore sessions;
+    private final boolean keepWarm;
+    private final Map<String, Deque<Submitter>> idle = new HashMap<>();
+    private boolean closed;
+
+    private SubmitterPool(BrowserLauncher browsers, SessionStore sessions, boolean keepWarm) {
+        this.browsers = browsers;
+        this.sessions = sessions;
+        this.keepWarm = keepWarm;
+    }
+
+    /**
+     * Starts pre-launching browsers when configured and opens the session store.
+     * With {@code keepWarm} released submitters stay logged in until {@link #close()}.
+     */
+    public static SubmitterPool fromConfig(boolean headless, boolean keepWarm) throws IOException {
+        boolean prelaunch = AppConfig.isBrowserPrelaunchEnabled()
+            && "selenium".equalsIgnoreCase(AppConfig.getSubmitterEngine());
+        BrowserLauncher browsers = prelaunch
+            ? BrowserLauncher.prelaunch(AppConfig.getWorkerCount(), headless)
+            : BrowserLauncher.onDemand(headless);
+        try {
+            String keyFile = AppConfig.getSessionKeyFile();
+            SessionStore sessions = AppConfig.isSessionStoreEnabled()
+                ? SessionStore.open(Paths.get(AppConfig.getSessionStoreDirectory()),
+                    keyFile.isEmpty() ? null : Paths.get(keyFile), Duration.ofMinutes(AppConfig.getSessionMaxAge()))
+                : SessionStore.disabled();
+            return new SubmitterPool(browsers, sessions, keepWarm);
+        } catch (IOException | RuntimeException e) {
+            browsers.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a logged-in submitter for the account, reusing an idle one when
+     * it still responds. The slot names a new submitter's saved session.
+     */
+    public Submitter acquire(String[] credentials, String[] senderInfo, String slot) {
+        Submitter submitter;
+        while ((submitter = takeIdle(key(credentials))) != null) {
+            if (submitter.isUsable()) {
+                Logger.info("Reusing logged-in session for account " + credentials[0]);
+                submitter.setSenderInfo(senderInfo);
+                return submitter;
+            }
+            Logger.info("Dropping idle session for account " + credentials[0] + " that no longer responds");
+            submitter.close();
+        }
+
+        submitter = create(credentials, senderInfo, slot);
+        try {
+            submitter.login();
+        } catch (RuntimeException e) {
+            submitter.close();
+            throw e;
+        }
+        return submitter;
+    }
+
+    /** Hands back a submitter that is still logged in; it is closed unless the pool keeps sessions warm. */
+    public void release(String[] credentials, Submitter submitter) {
+        synchronized (this) {
+            if (keepWarm && !closed) {
+                idle.computeIfAbsent(key(credentials), k -> new ArrayDeque<>()).push(submitter);
+                return;
+            }
+        }
+        submitter.close();
+    }
+
+    /** Logs in {@code count} sessions for the account ahead of the first file. */
+    public void warmUp(String[] credentials, int count) {
+        for (int i = 1; i <= count; i++) {
+            try {
+                release(credentials, acquire(credentials, null, "warm-" + i));
+            } catch (RuntimeException e) {
+                Logger.error("Could not warm up a session for account " + credentials[0] + ": " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private synchronized Submitter takeIdle(String key) {
+        Deque<Submitter> submitters = idle.get(key);
+        return submitters == null ? null : submitters.poll();
+    }
+
+    private Submitter create(String[] credentials, String[] senderInfo, String slot) {
+        String engine = AppConfig.getSubmitterEngine();
+        switch (engine.toLowerCase()) {
+            case "selenium":
+                return new SeleniumSubmitter(browsers.acquire(), credentials, senderInfo, sessions, slot);
+            case "http":
+                return new HttpSubmitter(credentials, senderInfo);
+            default:
+                throw new IllegalArgumentException("Unknown submitter engine: " + engine);
+        }
+    }
+
+    private static String key(String[] credentials) {
+        return credentials[0] + "|" + credentials[2];
+    }
+
+    /** Closes the idle submitters and any pre-launched browser no worker claimed. */
+    @Override
+    public void close() {
+        List<Submitter> submitters = new ArrayList<>();
+        synchronized (this) {
+            closed = true;
+            idle.values().forEach(submitters::addAll);
+            idle.clear();
+        }
+        submitters.forEach(Submitter::close);
+        browsers.close();
+    }
+}
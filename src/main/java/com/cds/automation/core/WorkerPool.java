@@ -0,0 +1,118 @@
+package com.cds.automation.core;
+
+import com.cds.automation.config.AppConfig;
+import com.cds.automation.metrics.Metrics;
+import com.cds.automation.model.DeclarationData;
+import com.cds.automation.util.Logger;
+import com.cds.automation.util.RetryPolicy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class WorkerPool {
+    public static final DeclarationData END_OF_INPUT = new DeclarationData(
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
+
+    private final String threadPrefix;
+    private final int size;
+    private final SubmitterPool submitters;
+    private final String[] credentials;
+    private final String[] senderInfo;
+    private final CheckpointJournal journal;
+    private final CircuitBreaker breaker;
+    private final Duration rowBudget = Duration.ofSeconds(AppConfig.getRowTimeBudget());
+    private final List<Thread> workers = new ArrayList<>();
+    private final AtomicInteger running = new AtomicInteger();
+
+    public WorkerPool(String threadPrefix, int size, SubmitterPool submitters, String[] credentials,
+                      String[] senderInfo, CheckpointJournal journal, CircuitBreaker breaker) {
+        this.threadPrefix = threadPrefix;
+        this.size = Math.max(1, size);
+        this.submitters = submitters;
+        this.credentials = credentials;
+        this.senderInfo = senderInfo;
+        this.journal = journal;
+        this.breaker = breaker;
+    }
+
+    public void start(BlockingQueue<DeclarationData> input, BlockingQueue<ProcessingResult> output) {
+        Logger.info("Starting " + size + " worker session(s) for account " + credentials[0]);
+        running.set(size);
+        for (int i = 1; i <= size; i++) {
+            Thread worker = new Thread(() -> {
+                runWorker(input, output);
+                if (running.decrementAndGet() == 0) {
+                    drain(input, output);
+                }
+            }, threadPrefix + "-" + i);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    public void awaitCompletion() throws InterruptedException {
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    /**
+     * Run by the last worker to exit. If every session died early the rest of this
+     * pool's input fails right away, so the stage feeding it is never left blocked
+     * on a queue nobody takes from while other pools are still working.
+     */
+    private void drain(BlockingQueue<DeclarationData> input, BlockingQueue<ProcessingResult> output) {
+        try {
+            DeclarationData remaining;
+            while ((remaining = input.take()) != END_OF_INPUT) {
+                output.put(ProcessingResult.failure(remaining.getReferenceId(), "No worker session available"));
+            }
+            input.put(END_OF_INPUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runWorker(BlockingQueue<DeclarationData> queue, BlockingQueue<ProcessingResult> output) {
+        String name = Thread.currentThread().getName();
+        Submitter submitter = null;
+        boolean finished = false;
+        try {
+            submitter = submitters.acquire(credentials, senderInfo, name);
+
+            while (true) {
+                DeclarationData declaration = queue.take();
+                if (declaration == END_OF_INPUT) {
+                    queue.put(END_OF_INPUT);
+                    break;
+                }
+                Logger.info(name + " processing " + declaration.getAction() + " of declaration "
+                    + declaration.getReferenceId());
+                boolean probe = breaker.acquire();
+                journal.started(declaration.getReferenceId(), declaration.getAction());
+                Submitter current = submitter;
+                ProcessingResult result = Metrics.time("row",
+                    () -> RetryPolicy.withBudget(rowBudget, () -> current.process(declaration)));
+                journal.finished(result, declaration.getAction());
+                breaker.record(result, probe);
+                output.put(result);
+            }
+            finished = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            Logger.error(name + " stopped: " + e.getMessage());
+        } finally {
+            if (submitter != null) {
+                // Only a session that made it to the end of the input is worth keeping
+                if (finished) {
+                    submitters.release(credentials, submitter);
+                } else {
+                    submitter.close();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.cds.automation.http;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The postable state of one WebForms page: the hidden ASP.NET fields, every
+ * successful control value, and the id to name mapping needed to address
+ * controls by the same ids the Selenium engine uses.
+ */
+public class HtmlForm {
+    private static final Pattern FORM = Pattern.compile("<form\\b([^>]*)>", Pattern.CASE_INSENSITIVE);
+    private static final Pattern INPUT = Pattern.compile("<input\\b([^>]*)>", Pattern.CASE_INSENSITIVE);
+    private static final Pattern SELECT = Pattern.compile(
+        "<select\\b([^>]*)>(.*?)</select>", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern OPTION = Pattern.compile(
+        "<option\\b([^>]*)>(.*?)(?=<option\\b|$)", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern TEXTAREA = Pattern.compile(
+        "<textarea\\b([^>]*)>(.*?)</textarea>", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern BUTTON = Pattern.compile(
+        "<button\\b([^>]*)>(.*?)</button>", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern ATTRIBUTE = Pattern.compile(
+        "([\\w:$-]+)(?:\\s*=\\s*(?:\"([^\"]*)\"|'([^']*)'|([^\\s>]+)))?");
+    private static final Pattern ENTITY = Pattern.compile("&(#[0-9]+|#[xX][0-9a-fA-F]+|amp|lt|gt|quot|apos);");
+
+    private final URL url;
+    private final URL action;
+    private final String html;
+    private final Map<String, String> values = new LinkedHashMap<>();
+    private final Map<String, String> namesById = new HashMap<>();
+    // Disabled controls are never posted, even when set
+    private final Set<String> disabledIds = new HashSet<>();
+    private final Map<String, String[]> buttonsById = new HashMap<>();
+    private final Map<String, String[]> buttonsByText = new HashMap<>();
+
+    private HtmlForm(URL url, String html) throws MalformedURLException {
+        this.url = url;
+        this.html = html;
+        Matcher form = FORM.matcher(html);
+        String target = form.find() ? attributes(form.group(1)).get("action") : null;
+        this.action = target == null || target.isEmpty() ? url : new URL(url, decode(target));
+    }
+
+    public static HtmlForm parse(URL url, String html) throws MalformedURLException {
+        HtmlForm form = new HtmlForm(url, html);
+        form.parseInputs();
+        form.parseSelects();
+        form.parseTextAreas();
+        form.parseButtons();
+        return form;
+    }
+
+    public URL getUrl() { return url; }
+    public URL getAction() { return action; }
+    public String getHtml() { return html; }
+
+    public boolean hasElement(String id) {
+        return namesById.containsKey(id) || buttonsById.containsKey(id)
+            || html.contains("id=\"" + id + "\"");
+    }
+
+    public void set(String id, String value) {
+        String name = namesById.get(id);
+        if (name == null) {
+            throw new IllegalStateException("Form field not found: " + id);
+        }
+        if (disabledIds.contains(id)) {
+            return;
+        }
+        values.put(name, value == null ? "" : value);
+    }
+
+    public void setAll(Map<String, String> fieldsById) {
+        fieldsById.forEach(this::set);
+    }
+
+    /** Returns the name/value pair a browser would post for the button with this id. */
+    public String[] button(String id) {
+        String[] button = buttonsById.get(id);
+        if (button == null) {
+            throw new IllegalStateException("Button not found: " + id);
+        }
+        return button;
+    }
+
+    public String[] buttonWithText(String text) {
+        return buttonsByText.get(text);
+    }
+
+    Map<String, String> values() {
+        return values;
+    }
+
+    private void parseInputs() {
+        Matcher input = INPUT.matcher(html);
+        while (input.find()) {
+            Map<String, String> attrs = attributes(input.group(1));
+            String name = attrs.get("name");
+            if (name == null) continue;
+            String type = attrs.getOrDefault("type", "text").toLowerCase();
+            String value = attrs.getOrDefault("value", "");
+
+            if (attrs.containsKey("disabled")) {
+                registerDisabled(attrs.get("id"), name);
+                continue;
+            }
+            if (type.equals("submit") || type.equals("button") || type.equals("image")) {
+                registerButton(attrs.get("id"), name, value, value);
+                continue;
+            }
+            if ((type.equals("checkbox") || type.equals("radio")) && !attrs.containsKey("checked")) {
+                registerId(attrs.get("id"), name);
+                continue;
+            }
+            registerId(attrs.get("id"), name);
+            values.put(name, value);
+        }
+    }
+
+    private void parseSelects() {
+        Matcher select = SELECT.matcher(html);
+        while (select.find()) {
+            Map<String, String> attrs = attributes(select.group(1));
+            String name = attrs.get("name");
+            if (name == null) continue;
+            if (attrs.containsKey("disabled")) {
+                registerDisabled(attrs.get("id"), name);
+                continue;
+            }
+
+            String first = null;
+            String selected = null;
+            Matcher option = OPTION.matcher(select.group(2));
+            while (option.find()) {
+                Map<String, String> optionAttrs = attributes(option.group(1));
+                String value = optionAttrs.containsKey("value")
+                    ? optionAttrs.get("value") : decode(option.group(2).replaceAll("<[^>]*>", "").trim());
+                if (first == null) first = value;
+                if (optionAttrs.containsKey("selected")) selected = value;
+            }
+            registerId(attrs.get("id"), name);
+            values.put(name, selected != null ? selected : first != null ? first : "");
+        }
+    }
+
+    private void parseTextAreas() {
+        Matcher textArea = TEXTAREA.matcher(html);
+        while (textArea.find()) {
+            Map<String, String> attrs = attributes(textArea.group(1));
+            String name = attrs.get("name");
+            if (name == null) continue;
+            if (attrs.containsKey("disabled")) {
+                registerDisabled(attrs.get("id"), name);
+                continue;
+            }
+            registerId(attrs.get("id"), name);
+            values.put(name, decode(textArea.group(2)));
+        }
+    }
+
+    private void parseButtons() {
+        Matcher button = BUTTON.matcher(html);
+        while (button.find()) {
+            Map<String, String> attrs = attributes(button.group(1));
+            String name = attrs.get("name");
+            // A disabled button cannot be clicked, so it is not registered at all
+            if (name == null || attrs.containsKey("disabled")) continue;
+            String text = decode(button.group(2).replaceAll("<[^>]*>", "").trim());
+            registerButton(attrs.get("id"), name, attrs.getOrDefault("value", ""), text);
+        }
+    }
+
+    /** A disabled field can still be found and set, but like in a browser it is never posted. */
+    private void registerDisabled(String id, String name) {
+        if (id != null) {
+            namesById.put(id, name);
+            disabledIds.add(id);
+        }
+    }
+
+    private void registerId(String id, String name) {
+        if (id != null) {
+            namesById.put(id, name);
+        }
+    }
+
+    private void registerButton(String id, String name, String value, String text) {
+        String[] button = {name, value};
+        if (id != null) {
+            buttonsById.put(id, button);
+        }
+        buttonsByText.putIfAbsent(text, button);
+    }
+
+    private static Map<String, String> attributes(String tagBody) {
+        Map<String, String> attrs = new HashMap<>();
+        Matcher attribute = ATTRIBUTE.matcher(tagBody);
+        while (attribute.find()) {
+            String value = attribute.group(2) != null ? attribute.group(2)
+                : attribute.group(3) != null ? attribute.group(3)
+                : attribute.group(4) != null ? attribute.group(4) : "";
+            attrs.put(attribute.group(1).toLowerCase(), decode(value));
+        }
+        return attrs;
+    }
+
+    static String decode(String text) {
+        if (text.indexOf('&') < 0) {
+            return text;
+        }
+        Matcher entity = ENTITY.matcher(text);
+        StringBuffer decoded = new StringBuffer();
+        while (entity.find()) {
+            String name = entity.group(1);
+            String replacement;
+            switch (name) {
+                case "amp": replacement = "&"; break;
+                case "lt": replacement = "<"; break;
+                case "gt": replacement = ">"; break;
+                case "quot": replacement = "\""; break;
+                case "apos": replacement = "'"; break;
+                default:
+                    int codePoint = name.charAt(1) == 'x' || name.charAt(1) == 'X'
+                        ? Integer.parseInt(name.substring(2), 16)
+                        : Integer.parseInt(name.substring(1));
+                    replacement = new String(Character.toChars(codePoint));
+            }
+            entity.appendReplacement(decoded, Matcher.quoteReplacement(replacement));
+        }
+        entity.appendTail(decoded);
+        return decoded.toString();
+    }
+}
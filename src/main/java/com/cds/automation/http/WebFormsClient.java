@@ -0,0 +1,186 @@
+package com.cds.automation.http;
+
+import com.cds.automation.util.Logger;
+import com.cds.automation.util.PortalThrottle;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.CookieManager;
+import java.net.CookiePolicy;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Minimal browser stand-in for ASP.NET WebForms pages. Cookies are kept in a
+ * per-client jar (not the JVM-wide CookieHandler) so several sessions can run side
+ * by side, and response bodies are always read to the end so the JDK can keep
+ * the underlying connection alive between postbacks. Every request, redirects
+ * included, counts as one request to the {@link PortalThrottle}.
+ */
+public class WebFormsClient {
+    private static final int MAX_REDIRECTS = 5;
+    private static final Pattern CHARSET = Pattern.compile("charset=([\\w-]+)", Pattern.CASE_INSENSITIVE);
+
+    private final CookieManager cookies = new CookieManager(null, CookiePolicy.ACCEPT_ALL);
+    private final int timeoutMillis;
+
+    public WebFormsClient(int timeoutSeconds) {
+        this.timeoutMillis = timeoutSeconds * 1000;
+    }
+
+    public HtmlForm get(String url) throws IOException {
+        return send(new URL(url), null);
+    }
+
+    /** Posts the form as if the button with the given id had been clicked. */
+    public HtmlForm click(HtmlForm form, String buttonId) throws IOException {
+        return click(form, form.button(buttonId));
+    }
+
+    /** Posts the form with the given name/value pair as the submitting control. */
+    public HtmlForm click(HtmlForm form, String[] button) throws IOException {
+        return post(form, button[0], button[1], "", "");
+    }
+
+    /** Equivalent of {@code __doPostBack(eventTarget, eventArgument)}. */
+    public HtmlForm postBack(HtmlForm form, String eventTarget, String eventArgument) throws IOException {
+        return post(form, null, null, eventTarget, eventArgument);
+    }
+
+    private HtmlForm post(HtmlForm form, String buttonName, String buttonValue, String eventTarget,
+                          String eventArgument) throws IOException {
+        StringBuilder body = new StringBuilder();
+        for (Map.Entry<String, String> field : form.values().entrySet()) {
+            String name = field.getKey();
+            if (name.equals("__EVENTTARGET") || name.equals("__EVENTARGUMENT")) continue;
+            appendParam(body, name, field.getValue());
+        }
+        appendParam(body, "__EVENTTARGET", eventTarget);
+        appendParam(body, "__EVENTARGUMENT", eventArgument);
+        if (buttonName != null) {
+            appendParam(body, buttonName, buttonValue);
+        }
+        return send(form.getAction(), body.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private HtmlForm send(URL url, byte[] body) throws IOException {
+        return PortalThrottle.shared().call(body == null ? "GET" : "POST", () -> exchange(url, body));
+    }
+
+    private HtmlForm exchange(URL url, byte[] body) throws IOException {
+        URL current = url;
+        byte[] payload = body;
+        for (int redirects = 0; redirects <= MAX_REDIRECTS; redirects++) {
+            HttpURLConnection connection = (HttpURLConnection) current.openConnection();
+            connection.setInstanceFollowRedirects(false);
+            connection.setConnectTimeout(timeoutMillis);
+            connection.setReadTimeout(timeoutMillis);
+            connection.setRequestProperty("Accept-Encoding", "gzip");
+            connection.setRequestProperty("Connection", "keep-alive");
+            addCookies(connection, current);
+
+            if (payload != null) {
+                connection.setRequestMethod("POST");
+                connection.setDoOutput(true);
+                connection.setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
+                connection.setFixedLengthStreamingMode(payload.length);
+                try (OutputStream out = connection.getOutputStream()) {
+                    out.write(payload);
+                }
+            }
+
+            int status = connection.getResponseCode();
+            storeCookies(connection, current);
+            String html = readBody(connection);
+            URL requested = current;
+            boolean posted = payload != null;
+            Logger.debug(() -> (posted ? "POST " : "GET ") + requested + " -> " + status);
+
+            if (status >= 300 && status < 400) {
+                String location = connection.getHeaderField("Location");
+                if (location == null) {
+                    throw new IOException("Redirect without Location header from " + current);
+                }
+                current = new URL(current, location);
+                payload = null;
+                continue;
+            }
+            if (status >= 400) {
+                throw new IOException("HTTP " + status + " from " + current);
+            }
+            return HtmlForm.parse(current, html);
+        }
+        throw new IOException("Too many redirects starting at " + url);
+    }
+
+    private void addCookies(HttpURLConnection connection, URL url) throws IOException {
+        Map<String, List<String>> headers = cookies.get(toUri(url), Collections.emptyMap());
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            for (String value : header.getValue()) {
+                connection.addRequestProperty(header.getKey(), value);
+            }
+        }
+    }
+
+    private void storeCookies(HttpURLConnection connection, URL url) throws IOException {
+        cookies.put(toUri(url), connection.getHeaderFields());
+    }
+
+    private static String readBody(HttpURLConnection connection) throws IOException {
+        InputStream raw = connection.getResponseCode() >= 400
+            ? connection.getErrorStream() : connection.getInputStream();
+        if (raw == null) {
+            return "";
+        }
+        InputStream in = "gzip".equalsIgnoreCase(connection.getContentEncoding()) ? new GZIPInputStream(raw) : raw;
+        try (InputStream body = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = body.read(chunk)) != -1) {
+                out.write(chunk, 0, read);
+            }
+            return new String(out.toByteArray(), charsetOf(connection.getContentType()));
+        }
+    }
+
+    private static Charset charsetOf(String contentType) {
+        if (contentType != null) {
+            Matcher charset = CHARSET.matcher(contentType);
+            if (charset.find() && Charset.isSupported(charset.group(1))) {
+                return Charset.forName(charset.group(1));
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    private static void appendParam(StringBuilder body, String name, String value)
+            throws UnsupportedEncodingException {
+        if (body.length() > 0) {
+            body.append('&');
+        }
+        body.append(URLEncoder.encode(name, "UTF-8")).append('=')
+            .append(URLEncoder.encode(value == null ? "" : value, "UTF-8"));
+    }
+
+    private static URI toUri(URL url) throws IOException {
+        try {
+            return url.toURI();
+        } catch (URISyntaxException e) {
+            throw new IOException("Invalid URL " + url, e);
+        }
+    }
+}
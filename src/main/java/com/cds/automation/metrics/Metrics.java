@@ -0,0 +1,118 @@
+package com.cds.automation.metrics;
+
+import org.openqa.selenium.TimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Registry of per-step timings. A run records into its own registry, opened with
+ * {@link #openRun()} on the thread that starts it and inherited by the threads it
+ * creates, so runs side by side in one process keep their figures apart; steps
+ * timed outside a run go to a process-wide one. Steps nest per thread, and
+ * retries are charged to the innermost step currently running on the calling
+ * thread.
+ */
+public class Metrics {
+    private static final String UNATTRIBUTED = "unattributed";
+    private static final Metrics PROCESS = new Metrics();
+    private static final InheritableThreadLocal<Metrics> current = new InheritableThreadLocal<Metrics>() {
+        @Override
+        protected Metrics initialValue() {
+            return PROCESS;
+        }
+    };
+    private static final ThreadLocal<Deque<String>> activeSteps = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private final Map<String, StepMetrics> steps = new ConcurrentHashMap<>();
+
+    private Metrics() {
+    }
+
+    /**
+     * Starts an empty registry for this thread and the threads it starts from now
+     * on. Closing the returned scope puts back the registry that was in use.
+     */
+    public static Scope openRun() {
+        Scope scope = new Scope(current.get(), new Metrics());
+        current.set(scope.registry);
+        return scope;
+    }
+
+    public static void time(String step, Runnable action) {
+        time(step, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public static <T> T time(String step, Supplier<T> action) {
+        StepMetrics metrics = step(step);
+        Deque<String> active = activeSteps.get();
+        active.push(step);
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } catch (RuntimeException e) {
+            metrics.recordFailure(isTimeout(e));
+            throw e;
+        } finally {
+            metrics.getLatency().record((System.nanoTime() - start) / 1000);
+            active.pop();
+        }
+    }
+
+    public static void recordRetry() {
+        String current = activeSteps.get().peek();
+        step(current != null ? current : UNATTRIBUTED).recordRetry();
+    }
+
+    /** The steps recorded so far in the registry of the calling thread's run. */
+    public static List<StepMetrics> snapshot() {
+        return current.get().sortedSteps();
+    }
+
+    private List<StepMetrics> sortedSteps() {
+        List<StepMetrics> all = new ArrayList<>(steps.values());
+        all.sort((a, b) -> a.getName().compareTo(b.getName()));
+        return all;
+    }
+
+    private static StepMetrics step(String name) {
+        return current.get().steps.computeIfAbsent(name, StepMetrics::new);
+    }
+
+    private static boolean isTimeout(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException || cause instanceof java.net.SocketTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** The registry of one run, bound until closed. */
+    public static final class Scope implements AutoCloseable {
+        private final Metrics previous;
+        private final Metrics registry;
+
+        private Scope(Metrics previous, Metrics registry) {
+            this.previous = previous;
+            this.registry = registry;
+        }
+
+        /** The steps recorded in this run so far, from whichever thread asks. */
+        public List<StepMetrics> snapshot() {
+            return registry.sortedSteps();
+        }
+
+        @Override
+        public void close() {
+            current.set(previous);
+        }
+    }
+}
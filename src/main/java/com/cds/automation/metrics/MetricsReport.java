@@ -0,0 +1,113 @@
+package com.cds.automation.metrics;
+
+import com.cds.automation.util.Logger;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes the per-step metrics of a run as JSON and CSV and prints a console
+ * summary table. Latencies are reported in milliseconds.
+ */
+public class MetricsReport {
+    private static final DateTimeFormatter FILE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final int processed;
+    private final int succeeded;
+    private final int failed;
+    private final long wallClockMillis;
+    private final List<StepMetrics> steps;
+
+    public MetricsReport(int processed, int succeeded, int failed, long wallClockMillis,
+                         List<StepMetrics> steps) {
+        this.processed = processed;
+        this.succeeded = succeeded;
+        this.failed = failed;
+        this.wallClockMillis = wallClockMillis;
+        this.steps = steps;
+    }
+
+    /** The run name keeps reports of files that finish in the same second apart. */
+    public void writeTo(Path directory, String runName) {
+        String stamp = runName + "-" + LocalDateTime.now().format(FILE_STAMP);
+        Path json = directory.resolve("run-report-" + stamp + ".json");
+        Path csv = directory.resolve("run-report-" + stamp + ".csv");
+        try {
+            Files.createDirectories(directory);
+            try (Writer out = Files.newBufferedWriter(json, StandardCharsets.UTF_8)) {
+                writeJson(out);
+            }
+            try (Writer out = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+                writeCsv(out);
+            }
+            Logger.info("Run report written to " + json + " and " + csv);
+        } catch (IOException e) {
+            Logger.error("Failed to write run report: " + e.getMessage());
+        }
+    }
+
+    public void printSummary() {
+        StringBuilder table = new StringBuilder();
+        table.append(String.format(Locale.ROOT, "%n%-28s %8s %9s %9s %9s %9s %7s %8s%n",
+            "step", "count", "p50 ms", "p95 ms", "p99 ms", "max ms", "retries", "timeouts"));
+        for (StepMetrics step : steps) {
+            LatencyHistogram latency = step.getLatency();
+            table.append(String.format(Locale.ROOT, "%-28s %8d %9.1f %9.1f %9.1f %9.1f %7d %8d%n",
+                step.getName(), latency.getCount(),
+                millis(latency.getPercentileMicros(50)), millis(latency.getPercentileMicros(95)),
+                millis(latency.getPercentileMicros(99)), millis(latency.getMaxMicros()),
+                step.getRetries(), step.getTimeouts()));
+        }
+        table.append(String.format(Locale.ROOT, "%d rows in %.1f s (%d succeeded, %d failed)",
+            processed, wallClockMillis / 1000.0, succeeded, failed));
+        Logger.info(table.toString());
+    }
+
+    private void writeJson(Writer out) throws IOException {
+        out.write("{\n");
+        out.write(String.format(Locale.ROOT,
+            "  \"processed\": %d,\n  \"succeeded\": %d,\n  \"failed\": %d,\n  \"wallClockMillis\": %d,\n",
+            processed, succeeded, failed, wallClockMillis));
+        out.write("  \"steps\": [");
+        for (int i = 0; i < steps.size(); i++) {
+            StepMetrics step = steps.get(i);
+            LatencyHistogram latency = step.getLatency();
+            out.write(i == 0 ? "\n" : ",\n");
+            out.write(String.format(Locale.ROOT,
+                "    {\"name\": \"%s\", \"count\": %d, \"meanMillis\": %.3f, \"p50Millis\": %.3f, "
+                    + "\"p95Millis\": %.3f, \"p99Millis\": %.3f, \"maxMillis\": %.3f, "
+                    + "\"failures\": %d, \"retries\": %d, \"timeouts\": %d}",
+                escape(step.getName()), latency.getCount(), latency.getMeanMicros() / 1000.0,
+                millis(latency.getPercentileMicros(50)), millis(latency.getPercentileMicros(95)),
+                millis(latency.getPercentileMicros(99)), millis(latency.getMaxMicros()),
+                step.getFailures(), step.getRetries(), step.getTimeouts()));
+        }
+        out.write("\n  ]\n}\n");
+    }
+
+    private void writeCsv(Writer out) throws IOException {
+        out.write("step,count,mean_ms,p50_ms,p95_ms,p99_ms,max_ms,failures,retries,timeouts\n");
+        for (StepMetrics step : steps) {
+            LatencyHistogram latency = step.getLatency();
+            out.write(String.format(Locale.ROOT, "%s,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%d,%d,%d%n",
+                step.getName(), latency.getCount(), latency.getMeanMicros() / 1000.0,
+                millis(latency.getPercentileMicros(50)), millis(latency.getPercentileMicros(95)),
+                millis(latency.getPercentileMicros(99)), millis(latency.getMaxMicros()),
+                step.getFailures(), step.getRetries(), step.getTimeouts()));
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
@@ -0,0 +1,32 @@
+package com.cds.automation.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class StepMetrics {
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+
+    StepMetrics(String name) {
+        this.name = name;
+    }
+
+    public String getName() { return name; }
+    public LatencyHistogram getLatency() { return latency; }
+    public long getFailures() { return failures.get(); }
+    public long getTimeouts() { return timeouts.get(); }
+    public long getRetries() { return retries.get(); }
+
+    void recordFailure(boolean timeout) {
+        failures.incrementAndGet();
+        if (timeout) {
+            timeouts.incrementAndGet();
+        }
+    }
+
+    void recordRetry() {
+        retries.incrementAndGet();
+    }
+}
@@ -16,6 +16,7 @@ public class DeclarationData {
     private final String weight;
     private final String itemValue;
     private final String currency;
+    private final String action;
 
     // Constructor
     public DeclarationData(String referenceId, String recipientAddress1, String recipientAddress2,
@@ -23,6 +24,16 @@ public class DeclarationData {
                           String recipientCountry, String recipientName, String recipientTelephone,
                           String recipientEmail, String itemDescription, String quantity,
                           String weight, String itemValue, String currency) {
+        this(referenceId, recipientAddress1, recipientAddress2, recipientCity, recipientState, recipientPostCode,
+            recipientCountry, recipientName, recipientTelephone, recipientEmail, itemDescription, quantity,
+            weight, itemValue, currency, "");
+    }
+
+    public DeclarationData(String referenceId, String recipientAddress1, String recipientAddress2,
+                          String recipientCity, String recipientState, String recipientPostCode,
+                          String recipientCountry, String recipientName, String recipientTelephone,
+                          String recipientEmail, String itemDescription, String quantity,
+                          String weight, String itemValue, String currency, String action) {
         this.referenceId = referenceId;
         this.recipientAddress1 = recipientAddress1;
         this.recipientAddress2 = recipientAddress2;
@@ -38,6 +49,13 @@ public class DeclarationData {
         this.weight = weight;
         this.itemValue = itemValue;
         this.currency = currency;
+        this.action = action;
+    }
+
+    public DeclarationData withAction(String action) {
+        return new DeclarationData(referenceId, recipientAddress1, recipientAddress2, recipientCity, recipientState,
+            recipientPostCode, recipientCountry, recipientName, recipientTelephone, recipientEmail, itemDescription,
+            quantity, weight, itemValue, currency, action);
     }
 
     // Getters
@@ -56,4 +74,5 @@ public class DeclarationData {
     public String getWeight() { return weight; }
     public String getItemValue() { return itemValue; }
     public String getCurrency() { return currency; }
+    public String getAction() { return action; }
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+package com.cds.automation.ui;
+
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.Wait;
+import com.cds.automation.config.AppConfig;
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Explicit wait whose polling interval starts at a few milliseconds and grows
+ * geometrically up to a cap, so conditions that are already true return almost
+ * immediately while slow postbacks are not hammered with calls.
+ */
+public class AdaptiveWait implements Wait<WebDriver> {
+    private static final double BACKOFF_MULTIPLIER = 2.0;
+
+    private final WebDriver driver;
+    private final long timeoutMillis;
+    private final long initialPollMillis = AppConfig.getWaitInitialPoll();
+    private final long maxPollMillis = AppConfig.getWaitMaxPoll();
+
+    public AdaptiveWait(WebDriver driver, Duration timeout) {
+        this.driver = driver;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    @Override
+    public <T> T until(Function<? super WebDriver, T> condition) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        long interval = Math.max(1, initialPollMillis);
+        RuntimeException lastException = null;
+
+        while (true) {
+            try {
+                T value = condition.apply(driver);
+                if (value != null && !Boolean.FALSE.equals(value)) {
+                    return value;
+                }
+                lastException = null;
+            } catch (NotFoundException | StaleElementReferenceException e) {
+                lastException = e;
+            }
+
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                throw new TimeoutException("Expected condition failed: waiting for " + condition
+                    + " (tried for " + timeoutMillis + " ms)", lastException);
+            }
+            try {
+                Thread.sleep(Math.min(interval, remaining));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for " + condition, e);
+            }
+            interval = Math.min(maxPollMillis, (long) (interval * BACKOFF_MULTIPLIER));
+        }
+    }
+}
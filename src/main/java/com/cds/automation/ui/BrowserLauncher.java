@@ -0,0 +1,83 @@
+package com.cds.automation.ui;
+
+import org.openqa.selenium.WebDriver;
+import com.cds.automation.util.Logger;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Hands out browser sessions to the workers. In pre-launch mode the browsers are
+ * started in the background as soon as the launcher is created, so Chrome
+ * startup overlaps with reading the workbook; otherwise each call to
+ * {@link #acquire()} starts one on demand.
+ */
+public class BrowserLauncher implements AutoCloseable {
+    private final boolean headless;
+    private final Queue<Future<WebDriver>> warm = new ConcurrentLinkedQueue<>();
+    private final ExecutorService executor;
+
+    private BrowserLauncher(int count, boolean headless) {
+        this.headless = headless;
+        if (count <= 0) {
+            this.executor = null;
+            return;
+        }
+
+        Logger.info("Pre-launching " + count + " browser session(s)");
+        this.executor = Executors.newFixedThreadPool(count, task -> {
+            Thread thread = new Thread(task, "browser-launcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < count; i++) {
+            warm.add(executor.submit(() -> WebDriverManager.createDriver(headless)));
+        }
+    }
+
+    public static BrowserLauncher prelaunch(int count, boolean headless) {
+        return new BrowserLauncher(count, headless);
+    }
+
+    public static BrowserLauncher onDemand(boolean headless) {
+        return new BrowserLauncher(0, headless);
+    }
+
+    public WebDriver acquire() {
+        Future<WebDriver> launched = warm.poll();
+        if (launched == null) {
+            return WebDriverManager.createDriver(headless);
+        }
+        try {
+            return launched.get();
+        } catch (ExecutionException e) {
+            Logger.error("Pre-launched browser failed to start, launching a new one: " + e.getCause().getMessage());
+            return WebDriverManager.createDriver(headless);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for browser launch", e);
+        }
+    }
+
+    /** Quits any pre-launched browsers that no worker claimed. */
+    @Override
+    public void close() {
+        Future<WebDriver> launched;
+        while ((launched = warm.poll()) != null) {
+            try {
+                WebDriverConfig.cleanupDriver(launched.get());
+            } catch (ExecutionException e) {
+                // Never started, nothing to clean up
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+}
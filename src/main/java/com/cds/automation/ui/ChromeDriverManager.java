@@ -1,11 +1,31 @@
 package com.cds.automation.ui;
 
+import org.openqa.selenium.PageLoadStrategy;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
+import com.cds.automation.config.AppConfig;
 import com.cds.automation.util.Logger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 public class ChromeDriverManager {
+    // Stylesheets stay: the waits depend on computed visibility
+    private static final List<String> LEAN_BLOCKED_URLS = Arrays.asList(
+        "*.png", "*.jpg", "*.jpeg", "*.gif", "*.svg", "*.webp", "*.ico", "*.bmp",
+        "*.woff", "*.woff2", "*.ttf", "*.otf", "*.eot",
+        "*.mp4", "*.webm", "*.mp3",
+        "*google-analytics.com*", "*googletagmanager.com*", "*doubleclick.net*",
+        "*facebook.net*", "*hotjar.com*", "*clarity.ms*"
+    );
+
     public static ChromeDriver createDriver(boolean headless) {
+        return createDriver(headless, AppConfig.isLeanBrowserProfile());
+    }
+
+    public static ChromeDriver createDriver(boolean headless, boolean lean) {
         Logger.info("Initializing Chrome WebDriver...");
         ChromeOptions options = new ChromeOptions();
         
@@ -14,7 +34,12 @@ public class ChromeDriverManager {
             options.addArguments("--headless=new");
         }
 
-        options.addArguments("--start-maximized");
+        if (lean) {
+            Logger.info("Using lean browser profile");
+            applyLeanProfile(options);
+        } else {
+            options.addArguments("--start-maximized");
+        }
         options.addArguments("--disable-gpu");
         options.addArguments("--no-sandbox");
         options.addArguments("--disable-dev-shm-usage");
@@ -24,11 +49,53 @@ public class ChromeDriverManager {
 
         try {
             ChromeDriver driver = new ChromeDriver(options);
-            WebDriverConfig.configureTimeouts(driver);
+            try {
+                if (lean) {
+                    blockResources(driver);
+                }
+                WebDriverConfig.configureTimeouts(driver, !lean);
+            } catch (RuntimeException e) {
+                driver.quit();
+                throw e;
+            }
             return driver;
         } catch (Exception e) {
             Logger.error("Failed to initialize Chrome WebDriver: " + e.getMessage());
             throw new RuntimeException("Chrome WebDriver initialization failed", e);
         }
     }
-}
\ No newline at end of file
+
+    private static void applyLeanProfile(ChromeOptions options) {
+        // DOMContentLoaded is enough, the explicit waits cover anything rendered later
+        options.setPageLoadStrategy(PageLoadStrategy.EAGER);
+        options.addArguments("--window-size=" + AppConfig.getBrowserWindowSize());
+        options.addArguments("--disable-background-networking");
+        options.addArguments("--disable-component-update");
+        options.addArguments("--disable-default-apps");
+        options.addArguments("--disable-sync");
+        options.addArguments("--disable-translate");
+        options.addArguments("--disable-features=Translate,OptimizationHints,MediaRouter");
+        options.addArguments("--metrics-recording-only");
+        options.addArguments("--no-first-run");
+        options.addArguments("--mute-audio");
+
+        Map<String, Object> prefs = new HashMap<>();
+        prefs.put("profile.managed_default_content_settings.images", 2);
+        options.setExperimentalOption("prefs", prefs);
+    }
+
+    private static void blockResources(ChromeDriver driver) {
+        List<String> patterns = new ArrayList<>(LEAN_BLOCKED_URLS);
+        for (String extra : AppConfig.getBrowserBlockedUrls().split(",")) {
+            if (!extra.trim().isEmpty()) {
+                patterns.add(extra.trim());
+            }
+        }
+
+        Map<String, Object> blocked = new HashMap<>();
+        blocked.put("urls", patterns);
+        driver.executeCdpCommand("Network.enable", new HashMap<>());
+        driver.executeCdpCommand("Network.setBlockedURLs", blocked);
+        Logger.debug(() -> "Blocking " + patterns.size() + " URL patterns");
+    }
+}
@@ -0,0 +1,92 @@
+package com.cds.automation.ui;
+
+import com.cds.automation.util.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves all inputs of a {@link FormSection} in one script call and keeps the
+ * handles until the page changes under them. The page carries a generation
+ * marker: a random id per document plus a counter bumped by a MutationObserver
+ * whenever nodes are removed, which is what a full or UpdatePanel postback does.
+ * A lookup whose marker still matches costs one round trip and no element
+ * searches; any other lookup re-resolves the whole section in that same call.
+ */
+public class ElementCache {
+    private static final String RESOLVE_SCRIPT =
+        "if (!window.__cdsPageId) {" +
+        "  window.__cdsPageId = Date.now().toString(36) + Math.random().toString(36).slice(2);" +
+        "  window.__cdsPageEdits = 0;" +
+        "  new MutationObserver(function (records) {" +
+        "    for (var i = 0; i < records.length; i++) {" +
+        "      if (records[i].removedNodes.length) { window.__cdsPageEdits++; return; }" +
+        "    }" +
+        "  }).observe(document.documentElement, {childList: true, subtree: true});" +
+        "}" +
+        "var marker = window.__cdsPageId + ':' + window.__cdsPageEdits;" +
+        "if (marker === arguments[0]) return [marker];" +
+        "var result = [marker];" +
+        "for (var i = 0; i < arguments[1].length; i++) result.push(document.getElementById(arguments[1][i]));" +
+        "return result;";
+
+    private final WebDriver driver;
+    private final Map<String, Resolved> sections = new HashMap<>();
+
+    public ElementCache(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    /** Returns the section's elements by id, in field order. */
+    public Map<String, WebElement> resolve(FormSection section) {
+        Resolved cached = sections.get(section.getName());
+        List<String> ids = new ArrayList<>();
+        for (FormSection.Field field : section.getFields()) {
+            ids.add(field.getId());
+        }
+
+        List<?> result = (List<?>) ((JavascriptExecutor) driver)
+            .executeScript(RESOLVE_SCRIPT, cached == null ? null : cached.marker, ids);
+        if (result.size() == 1) {
+            return cached.elements;
+        }
+
+        Map<String, WebElement> elements = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Object element = result.get(i + 1);
+            if (element instanceof WebElement) {
+                elements.put(ids.get(i), (WebElement) element);
+            } else {
+                missing.add(ids.get(i));
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new NoSuchElementException("Form fields not found: " + missing);
+        }
+        Logger.debug(() -> "Resolved " + elements.size() + " elements of section " + section.getName());
+        sections.put(section.getName(), new Resolved((String) result.get(0), elements));
+        return elements;
+    }
+
+    /** Drops every cached handle, e.g. after one turned out to be stale. */
+    public void invalidate() {
+        sections.clear();
+    }
+
+    private static final class Resolved {
+        final String marker;
+        final Map<String, WebElement> elements;
+
+        Resolved(String marker, Map<String, WebElement> elements) {
+            this.marker = marker;
+            this.elements = elements;
+        }
+    }
+}
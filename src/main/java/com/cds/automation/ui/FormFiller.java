@@ -0,0 +1,33 @@
+package com.cds.automation.ui;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+import com.cds.automation.util.Logger;
+import java.util.List;
+import java.util.Map;
+
+public class FormFiller {
+    // Sets every field in one round trip and raises the events the WebForms validators listen to
+    private static final String FILL_SCRIPT =
+        "var fields = arguments[0], missing = [];" +
+        "for (var id in fields) {" +
+        "  var el = document.getElementById(id);" +
+        "  if (!el) { missing.push(id); continue; }" +
+        "  el.value = fields[id];" +
+        "  el.dispatchEvent(new Event('input', {bubbles: true}));" +
+        "  el.dispatchEvent(new Event('change', {bubbles: true}));" +
+        "}" +
+        "return missing;";
+
+    public static void fillFields(WebDriver driver, Map<String, String> fields) {
+        if (fields.isEmpty()) {
+            return;
+        }
+        Logger.debug(() -> "Filling " + fields.size() + " fields via script");
+        Object missing = ((JavascriptExecutor) driver).executeScript(FILL_SCRIPT, fields);
+        if (missing instanceof List && !((List<?>) missing).isEmpty()) {
+            throw new NoSuchElementException("Form fields not found: " + missing);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.cds.automation.ui;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A group of form inputs that are filled together, described by element id.
+ * Fields marked as keystroke fields are autocompleting inputs that only pick up
+ * a value typed into them, so they are never set by script.
+ */
+public final class FormSection {
+    private final String name;
+    private final List<Field> fields;
+
+    private FormSection(String name, List<Field> fields) {
+        this.name = name;
+        this.fields = fields;
+    }
+
+    public static FormSection of(String name, Field... fields) {
+        List<Field> list = new ArrayList<>();
+        Collections.addAll(list, fields);
+        return new FormSection(name, Collections.unmodifiableList(list));
+    }
+
+    public static Field field(String id) {
+        return new Field(id, false);
+    }
+
+    public static Field keystroke(String id) {
+        return new Field(id, true);
+    }
+
+    public String getName() { return name; }
+    public List<Field> getFields() { return fields; }
+
+    /** Pairs the values, given in field order, with the field ids. */
+    public Map<String, String> bind(String... values) {
+        if (values.length != fields.size()) {
+            throw new IllegalArgumentException("Section " + name + " has " + fields.size()
+                + " fields but " + values.length + " values were given");
+        }
+        Map<String, String> bound = new LinkedHashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            bound.put(fields.get(i).getId(), values[i]);
+        }
+        return bound;
+    }
+
+    public boolean isKeystroke(String id) {
+        for (Field field : fields) {
+            if (field.getId().equals(id)) {
+                return field.isKeystroke();
+            }
+        }
+        return false;
+    }
+
+    public static final class Field {
+        private final String id;
+        private final boolean keystroke;
+
+        private Field(String id, boolean keystroke) {
+            this.id = id;
+            this.keystroke = keystroke;
+        }
+
+        public String getId() { return id; }
+        public boolean isKeystroke() { return keystroke; }
+    }
+}
@@ -0,0 +1,74 @@
+package com.cds.automation.ui;
+
+import com.cds.automation.config.AppConfig;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+import java.util.Date;
+
+/**
+ * Tells a worker, between rows, that its login is about to stop working: the
+ * configured refresh interval has passed, the auth cookie is about to expire
+ * or is gone, or the site has already sent the browser back to the login page.
+ * The checks cost one or two WebDriver round trips, so the worker can
+ * re-authenticate up front instead of running into element timeouts.
+ */
+public class SessionHealth {
+    private static final By LOGIN_FIELD = By.id("txtUsername");
+
+    private final long refreshIntervalMillis;
+    private final String authCookie;
+    private final long expiryMarginMillis;
+    private long loggedInAt;
+    private boolean authCookieSeen;
+
+    public SessionHealth(long refreshIntervalMillis, String authCookie, long expiryMarginMillis) {
+        this.refreshIntervalMillis = refreshIntervalMillis;
+        this.authCookie = authCookie;
+        this.expiryMarginMillis = expiryMarginMillis;
+    }
+
+    public static SessionHealth fromConfig() {
+        return new SessionHealth(AppConfig.getSessionReloginInterval() * 60_000L,
+            AppConfig.getSessionAuthCookie(), AppConfig.getSessionExpiryMargin() * 1000L);
+    }
+
+    /** Call after every successful login or session restore. */
+    public void loggedIn(WebDriver driver) {
+        loggedIn();
+        authCookieSeen = !authCookie.isEmpty() && driver.manage().getCookieNamed(authCookie) != null;
+    }
+
+    /** Starts the refresh interval for a session without browser cookies. */
+    public void loggedIn() {
+        loggedInAt = System.currentTimeMillis();
+        authCookieSeen = false;
+    }
+
+    /** True once the configured refresh interval has passed since the last login. */
+    public boolean isRefreshDue() {
+        return refreshIntervalMillis > 0 && System.currentTimeMillis() - loggedInAt >= refreshIntervalMillis;
+    }
+
+    /** Returns why the session should be renewed before the next row, or null if it looks healthy. */
+    public String check(WebDriver driver) {
+        if (isRefreshDue()) {
+            return "session is older than " + refreshIntervalMillis / 60_000 + " min";
+        }
+        if (authCookieSeen) {
+            Cookie cookie = driver.manage().getCookieNamed(authCookie);
+            if (cookie == null) {
+                return "auth cookie " + authCookie + " is gone";
+            }
+            Date expiry = cookie.getExpiry();
+            if (expiry != null && expiry.getTime() - System.currentTimeMillis() < expiryMarginMillis) {
+                return "auth cookie " + authCookie + " expires at " + expiry;
+            }
+        }
+        return isOnLoginPage(driver) ? "site is showing the login page" : null;
+    }
+
+    public boolean isOnLoginPage(WebDriver driver) {
+        return !driver.findElements(LOGIN_FIELD).isEmpty();
+    }
+}
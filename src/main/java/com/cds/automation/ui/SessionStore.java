@@ -0,0 +1,250 @@
+package com.cds.automation.ui;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+import com.cds.automation.util.Logger;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Keeps the cookies of an authenticated browser session on disk so a later run
+ * can skip the login round trip. Each entry is encrypted with AES-GCM and bound
+ * to the user, login URL and worker slot it was saved for.
+ *
+ * The 32-byte key never lives in the store: it comes base64-encoded from the
+ * {@code CDS_SESSION_KEY} environment variable, or raw from a key file outside
+ * the store directory. Without one the store refuses to open.
+ */
+public class SessionStore {
+    public static final String KEY_VARIABLE = "CDS_SESSION_KEY";
+    // Where earlier versions generated the key, next to the sessions it protected
+    private static final String LEGACY_KEY_FILE = "session.key";
+    private static final int KEY_BYTES = 32;
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+
+    private final Path directory;
+    private final SecretKey key;
+    private final long maxAgeMillis;
+    private final SecureRandom random = new SecureRandom();
+
+    private SessionStore(Path directory, SecretKey key, Duration maxAge) {
+        this.directory = directory;
+        this.key = key;
+        this.maxAgeMillis = maxAge.toMillis();
+    }
+
+    /** The key file is used only when {@value #KEY_VARIABLE} is not set; null for none. */
+    public static SessionStore open(Path directory, Path keyFile, Duration maxAge) throws IOException {
+        SecretKey key = loadKey(System.getenv(KEY_VARIABLE), keyFile, directory);
+        Files.createDirectories(directory);
+        Path legacyKey = directory.resolve(LEGACY_KEY_FILE);
+        if (Files.deleteIfExists(legacyKey)) {
+            Logger.info("Removed the old session key kept inside the store, " + legacyKey);
+        }
+        return new SessionStore(directory, key, maxAge);
+    }
+
+    public static SessionStore disabled() {
+        return new SessionStore(null, null, Duration.ZERO);
+    }
+
+    /**
+     * Installs the saved cookies for the given session and opens the page the
+     * session was saved on. Returns false when there is nothing usable to restore;
+     * the caller still has to check that the page really is authenticated.
+     */
+    public boolean restore(WebDriver driver, String sessionKey) {
+        if (directory == null) {
+            return false;
+        }
+        Path file = fileFor(sessionKey);
+        if (!Files.exists(file)) {
+            return false;
+        }
+
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(
+                decrypt(Files.readAllBytes(file), sessionKey)));
+            long savedAt = in.readLong();
+            if (System.currentTimeMillis() - savedAt > maxAgeMillis) {
+                Logger.info("Saved session is older than the configured maximum age, logging in again");
+                invalidate(sessionKey);
+                return false;
+            }
+            String pageUrl = in.readUTF();
+            List<Cookie> cookies = readCookies(in);
+            if (cookies.isEmpty()) {
+                invalidate(sessionKey);
+                return false;
+            }
+
+            // Cookies can only be added for the domain currently loaded
+            driver.get(pageUrl);
+            for (Cookie cookie : cookies) {
+                driver.manage().addCookie(cookie);
+            }
+            driver.get(pageUrl);
+            return true;
+        } catch (IOException | GeneralSecurityException e) {
+            Logger.error("Discarding unreadable saved session: " + e.getMessage());
+            invalidate(sessionKey);
+            return false;
+        }
+    }
+
+    /** Saves the cookies of the current, freshly authenticated page. */
+    public void save(WebDriver driver, String sessionKey) {
+        if (directory == null) {
+            return;
+        }
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeLong(System.currentTimeMillis());
+            out.writeUTF(driver.getCurrentUrl());
+            writeCookies(out, driver.manage().getCookies());
+            out.flush();
+
+            Path file = fileFor(sessionKey);
+            Path temp = Files.createTempFile(directory, "session", ".tmp");
+            Files.write(temp, encrypt(bytes.toByteArray(), sessionKey));
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Logger.debug(() -> "Saved session to " + file);
+        } catch (IOException | GeneralSecurityException e) {
+            Logger.error("Failed to save session: " + e.getMessage());
+        }
+    }
+
+    public void invalidate(String sessionKey) {
+        if (directory == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(fileFor(sessionKey));
+        } catch (IOException e) {
+            Logger.error("Failed to remove saved session: " + e.getMessage());
+        }
+    }
+
+    private static List<Cookie> readCookies(DataInputStream in) throws IOException {
+        long now = System.currentTimeMillis();
+        int count = in.readInt();
+        List<Cookie> cookies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Cookie.Builder builder = new Cookie.Builder(in.readUTF(), in.readUTF());
+            if (in.readBoolean()) builder.domain(in.readUTF());
+            builder.path(in.readUTF());
+            long expiry = in.readLong();
+            builder.isSecure(in.readBoolean());
+            builder.isHttpOnly(in.readBoolean());
+            if (in.readBoolean()) builder.sameSite(in.readUTF());
+            if (expiry >= 0) {
+                if (expiry <= now) continue;
+                builder.expiresOn(new Date(expiry));
+            }
+            cookies.add(builder.build());
+        }
+        return cookies;
+    }
+
+    private static void writeCookies(DataOutputStream out, Set<Cookie> cookies) throws IOException {
+        out.writeInt(cookies.size());
+        for (Cookie cookie : cookies) {
+            out.writeUTF(cookie.getName());
+            out.writeUTF(cookie.getValue());
+            out.writeBoolean(cookie.getDomain() != null);
+            if (cookie.getDomain() != null) out.writeUTF(cookie.getDomain());
+            out.writeUTF(cookie.getPath() == null ? "/" : cookie.getPath());
+            out.writeLong(cookie.getExpiry() == null ? -1 : cookie.getExpiry().getTime());
+            out.writeBoolean(cookie.isSecure());
+            out.writeBoolean(cookie.isHttpOnly());
+            out.writeBoolean(cookie.getSameSite() != null);
+            if (cookie.getSameSite() != null) out.writeUTF(cookie.getSameSite());
+        }
+    }
+
+    private byte[] encrypt(byte[] plain, String sessionKey) throws GeneralSecurityException {
+        byte[] iv = new byte[IV_BYTES];
+        random.nextBytes(iv);
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+        cipher.updateAAD(sessionKey.getBytes(StandardCharsets.UTF_8));
+        byte[] sealed = cipher.doFinal(plain);
+        return ByteBuffer.allocate(iv.length + sealed.length).put(iv).put(sealed).array();
+    }
+
+    private byte[] decrypt(byte[] stored, String sessionKey) throws GeneralSecurityException {
+        if (stored.length <= IV_BYTES) {
+            throw new GeneralSecurityException("Saved session is truncated");
+        }
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, stored, 0, IV_BYTES));
+        cipher.updateAAD(sessionKey.getBytes(StandardCharsets.UTF_8));
+        return cipher.doFinal(stored, IV_BYTES, stored.length - IV_BYTES);
+    }
+
+    private Path fileFor(String sessionKey) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(sessionKey.getBytes(StandardCharsets.UTF_8));
+            StringBuilder name = new StringBuilder();
+            for (int i = 0; i < 16; i++) {
+                name.append(String.format("%02x", digest[i]));
+            }
+            return directory.resolve(name + ".session");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static SecretKey loadKey(String encoded, Path keyFile, Path directory) throws IOException {
+        byte[] stored;
+        String source;
+        if (encoded != null && !encoded.trim().isEmpty()) {
+            source = "environment variable " + KEY_VARIABLE;
+            try {
+                stored = Base64.getDecoder().decode(encoded.trim());
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Session key in " + source + " is not valid base64");
+            }
+        } else if (keyFile != null) {
+            source = "key file " + keyFile;
+            if (keyFile.toAbsolutePath().normalize().startsWith(directory.toAbsolutePath().normalize())) {
+                throw new IOException("Session key file " + keyFile + " must be kept outside the store " + directory);
+            }
+            if (!Files.isRegularFile(keyFile)) {
+                throw new IOException("Session key file " + keyFile + " does not exist");
+            }
+            stored = Files.readAllBytes(keyFile);
+        } else {
+            throw new IOException("Session store is enabled but no key is configured: set " + KEY_VARIABLE
+                + " or session.key.file");
+        }
+        if (stored.length != KEY_BYTES) {
+            throw new IOException("Session key from " + source + " must be " + KEY_BYTES + " bytes, got "
+                + stored.length);
+        }
+        return new SecretKeySpec(stored, "AES");
+    }
+}
@@ -2,22 +2,29 @@ package com.cds.automation.ui;
 
 import org.openqa.selenium.WebDriver;
 import java.time.Duration;
+import com.cds.automation.config.AppConfig;
 import com.cds.automation.util.Logger;
 
 public class WebDriverConfig {
     private static final int PAGE_LOAD_TIMEOUT = 30;
-    private static final int IMPLICIT_WAIT = 10;
     private static final int SCRIPT_TIMEOUT = 20;
 
     public static void configureTimeouts(WebDriver driver) {
+        configureTimeouts(driver, !AppConfig.isLeanBrowserProfile());
+    }
+
+    public static void configureTimeouts(WebDriver driver, boolean maximize) {
         Logger.info("Configuring WebDriver timeouts...");
         try {
+            // No implicit wait: it would stall every poll of the explicit waits in WebElementWait
             driver.manage().timeouts()
                 .pageLoadTimeout(Duration.ofSeconds(PAGE_LOAD_TIMEOUT))
-                .implicitlyWait(Duration.ofSeconds(IMPLICIT_WAIT))
+                .implicitlyWait(Duration.ZERO)
                 .scriptTimeout(Duration.ofSeconds(SCRIPT_TIMEOUT));
             
-            driver.manage().window().maximize();
+            if (maximize) {
+                driver.manage().window().maximize();
+            }
             Logger.info("WebDriver timeouts configured successfully");
         } catch (Exception e) {
             Logger.error("Failed to configure WebDriver timeouts: " + e.getMessage());
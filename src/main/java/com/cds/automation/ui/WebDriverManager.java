@@ -2,21 +2,22 @@ package com.cds.automation.ui;
 
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
+import com.cds.automation.metrics.Metrics;
 import com.cds.automation.util.Logger;
-import com.cds.automation.util.ExceptionHandler;
+import com.cds.automation.util.PortalThrottle;
+import com.cds.automation.util.RetryPolicy;
 
 public class WebDriverManager {
     public static WebDriver createDriver(boolean useHeadless) {
         Logger.info("Creating new WebDriver instance");
-        WebDriver driver = ChromeDriverManager.createDriver(useHeadless);
-        WebDriverConfig.configureTimeouts(driver);
-        return driver;
+        // ChromeDriverManager already applies the timeouts
+        return ChromeDriverManager.createDriver(useHeadless);
     }
 
     public static void login(WebDriver driver, String username, String password, String url) {
         Logger.info("Performing login operation");
-        ExceptionHandler.withRetry(() -> {
-            driver.get(url);
+        Metrics.time("login", () -> RetryPolicy.fromConfig().call("login", () -> {
+            PortalThrottle.shared().run("login page", () -> driver.get(url));
             
             WebElementWait.waitForPresence(driver, By.id("txtUsername"))
                 .sendKeys(username);
@@ -24,12 +25,15 @@ public class WebDriverManager {
             WebElementWait.waitForPresence(driver, By.id("txtPassword"))
                 .sendKeys(password);
             
-            WebElementWait.waitForClickable(driver, By.id("btnLogin"))
-                .click();
-            
-            // Wait for login completion
-            WebElementWait.waitForPresence(driver, By.id("ContentPlaceHolder1_txtItemId"));
+            PortalThrottle.shared().run("login", () -> {
+                WebElementWait.waitForClickable(driver, By.id("btnLogin"))
+                    .click();
+                
+                // Wait for login completion
+                WebElementWait.waitForPresence(driver, By.id("ContentPlaceHolder1_txtItemId"));
+            });
             Logger.info("Login successful");
-        }, "login", 3);
+            return null;
+        }));
     }
 }
\ No newline at end of file
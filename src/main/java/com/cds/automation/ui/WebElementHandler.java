@@ -1,84 +1,60 @@
 package com.cds.automation.ui;
 
+import com.cds.automation.metrics.Metrics;
+import com.cds.automation.util.Logger;
+import com.cds.automation.util.RetryPolicy;
 import org.openqa.selenium.*;
 import org.openqa.selenium.support.ui.*;
 import java.time.Duration;
-import java.util.concurrent.TimeUnit;
 
 public class WebElementHandler {
+    private static final RetryPolicy ELEMENT_RETRY = RetryPolicy.forElements();
+    private static final String CONFIRM_TEXT = "Confirmar e continuar";
+    private static final By CONFIRM_BUTTON = By.xpath("//button[text()='" + CONFIRM_TEXT + "']");
+    private static final int POPUP_SETTLE_TIMEOUT = 10;
+
     public static void retryOnException(Runnable func) {
-        int attempts = 0;
-        while (attempts < 3) {
-            try {
-                func.run();
-                return;
-            } catch (StaleElementReferenceException | NoSuchElementException | ElementClickInterceptedException e) {
-                attempts++;
-                if (attempts >= 3) {
-                    throw new RuntimeException("Maximum retry attempts reached", e);
-                }
-                try {
-                    TimeUnit.MILLISECONDS.sleep(500);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    throw new RuntimeException("Interrupted during retry", ie);
-                }
-            }
-        }
+        ELEMENT_RETRY.run("element interaction", func);
     }
 
     public static boolean handlePopup(WebDriver driver) {
+        return Metrics.time("handlePopup", () -> probePopup(driver));
+    }
+
+    /**
+     * The confirmation dialog is detected by the page-idle observer, so a click
+     * that opens no dialog costs only the wait for the page to settle. The click
+     * before it must go through {@link WebElementWait#click}, otherwise the page
+     * can look settled before the portal has answered it.
+     */
+    private static boolean probePopup(WebDriver driver) {
+        boolean shown;
         try {
-            WebElement confirmButton = new WebDriverWait(driver, Duration.ofSeconds(2))
-                .until(ExpectedConditions.elementToBeClickable(
-                    By.xpath("//button[text()='Confirmar e continuar']")));
-            confirmButton.click();
-            TimeUnit.MILLISECONDS.sleep(300);
-            return true;
+            shown = WebElementWait.waitForPageReadyOrButton(driver, CONFIRM_TEXT, POPUP_SETTLE_TIMEOUT);
         } catch (TimeoutException e) {
-            return false;
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+            // A page that never goes quiet still gets checked once
+            Logger.debug("Page did not settle, checking for the confirmation dialog directly");
+            shown = !driver.findElements(CONFIRM_BUTTON).isEmpty();
+        }
+        if (!shown) {
             return false;
         }
+        retryOnStaleElement(() -> WebElementWait.click(driver, driver.findElement(CONFIRM_BUTTON)));
+        WebElementWait.waitForPageReady(driver);
+        return true;
     }
 
     public static void retryOnStaleElement(Runnable func) {
-        retryWithDelay(func, 3, 200);
-    }
-
-    public static void retryWithDelay(Runnable func, int maxAttempts, int delayMillis) {
-        int attempts = 0;
-        Exception lastException = null;
-
-        while (attempts < maxAttempts) {
-            try {
-                func.run();
-                return;
-            } catch (Exception e) {
-                lastException = e;
-                attempts++;
-                if (attempts >= maxAttempts) {
-                    break;
-                }
-                try {
-                    TimeUnit.MILLISECONDS.sleep(delayMillis);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    throw new RuntimeException("Interrupted during retry", ie);
-                }
-            }
-        }
-        throw new RuntimeException("Operation failed after " + maxAttempts + " attempts", lastException);
+        ELEMENT_RETRY.run("element click", func);
     }
 
     public static WebElement waitForElement(WebDriver driver, By by, int timeout) {
-        return new WebDriverWait(driver, Duration.ofSeconds(timeout))
-                .until(ExpectedConditions.visibilityOfElementLocated(by));
+        return Metrics.time("wait.visible", () -> new AdaptiveWait(driver, Duration.ofSeconds(timeout))
+                .until(ExpectedConditions.visibilityOfElementLocated(by)));
     }
 
     public static WebElement waitForElementToBeClickable(WebDriver driver, By by, int timeout) {
-        return new WebDriverWait(driver, Duration.ofSeconds(timeout))
-                .until(ExpectedConditions.elementToBeClickable(by));
+        return Metrics.time("wait.clickable", () -> new AdaptiveWait(driver, Duration.ofSeconds(timeout))
+                .until(ExpectedConditions.elementToBeClickable(by)));
     }
 }
\ No newline at end of file
@@ -2,25 +2,65 @@ package com.cds.automation.ui;
 
 import org.openqa.selenium.*;
 import org.openqa.selenium.support.ui.*;
+import com.cds.automation.config.AppConfig;
+import com.cds.automation.metrics.Metrics;
 import com.cds.automation.util.Logger;
 import java.time.Duration;
 import java.util.function.Function;
 
 public class WebElementWait {
     private static final int DEFAULT_TIMEOUT = 10;
-    private static final int POLLING_INTERVAL = 500;
+
+    // Starts counting DOM changes the first time a page is checked
+    private static final String INSTALL_OBSERVER =
+        "  window.__cdsLastMutation = Date.now();" +
+        "  window.__cdsMutations = 0;" +
+        "  new MutationObserver(function () { window.__cdsLastMutation = Date.now(); window.__cdsMutations++; })" +
+        "    .observe(document.documentElement, {childList: true, subtree: true, attributes: true});";
+
+    // Remembers the click, so the next idle check waits for the page to react to it
+    private static final String MARK_ACTION_SCRIPT =
+        "if (!window.__cdsLastMutation) {" + INSTALL_OBSERVER + "}" +
+        "window.__cdsActionAt = Date.now();" +
+        "window.__cdsActionMutations = window.__cdsMutations;";
+
+    // Idle once the document has loaded, no UpdatePanel postback is in flight, the page
+    // has reacted to the last marked click (or arguments[1] ms passed without a reaction)
+    // and the DOM has not changed for the quiet period passed as arguments[0]
+    private static final String PAGE_IDLE_SCRIPT =
+        "if (document.readyState !== 'complete') return false;" +
+        "if (window.Sys && Sys.WebForms && Sys.WebForms.PageRequestManager) {" +
+        "  var prm = Sys.WebForms.PageRequestManager.getInstance();" +
+        "  if (prm && prm.get_isInAsyncPostBack()) return false;" +
+        "}" +
+        "if (!window.__cdsLastMutation) {" + INSTALL_OBSERVER + "  return false;" +
+        "}" +
+        "var now = Date.now();" +
+        "if (window.__cdsActionAt && window.__cdsMutations === window.__cdsActionMutations" +
+        "    && now - window.__cdsActionAt < arguments[1]) return false;" +
+        "if (now - window.__cdsLastMutation < arguments[0]) return false;" +
+        "window.__cdsActionAt = 0;" +
+        "return true;";
+
+    // Answers 'button' as soon as a visible, enabled button with the text in arguments[2]
+    // is on the page, otherwise falls through to the idle check above
+    private static final String BUTTON_OR_IDLE_SCRIPT =
+        "var buttons = document.getElementsByTagName('button');" +
+        "for (var i = 0; i < buttons.length; i++) {" +
+        "  var b = buttons[i];" +
+        "  if (!b.disabled && b.getClientRects().length > 0 && b.textContent.trim() === arguments[2]) return 'button';" +
+        "}" +
+        PAGE_IDLE_SCRIPT;
 
     public static WebElement waitForPresence(WebDriver driver, By locator) {
         return waitForPresence(driver, locator, DEFAULT_TIMEOUT);
     }
 
     public static WebElement waitForPresence(WebDriver driver, By locator, int timeoutSeconds) {
-        Logger.debug("Waiting for element presence: " + locator);
+        Logger.debug(() -> "Waiting for element presence: " + locator);
         try {
-            return new WebDriverWait(driver, Duration.ofSeconds(timeoutSeconds))
-                .pollingEvery(Duration.ofMillis(POLLING_INTERVAL))
-                .ignoring(StaleElementReferenceException.class)
-                .until(ExpectedConditions.presenceOfElementLocated(locator));
+            return Metrics.time("wait.presence", () -> new AdaptiveWait(driver, Duration.ofSeconds(timeoutSeconds))
+                .until(ExpectedConditions.presenceOfElementLocated(locator)));
         } catch (TimeoutException e) {
             Logger.error("Element not present after " + timeoutSeconds + " seconds: " + locator);
             throw e;
@@ -32,12 +72,10 @@ public class WebElementWait {
     }
 
     public static WebElement waitForClickable(WebDriver driver, By locator, int timeoutSeconds) {
-        Logger.debug("Waiting for element to be clickable: " + locator);
+        Logger.debug(() -> "Waiting for element to be clickable: " + locator);
         try {
-            return new WebDriverWait(driver, Duration.ofSeconds(timeoutSeconds))
-                .pollingEvery(Duration.ofMillis(POLLING_INTERVAL))
-                .ignoring(StaleElementReferenceException.class)
-                .until(ExpectedConditions.elementToBeClickable(locator));
+            return Metrics.time("wait.clickable", () -> new AdaptiveWait(driver, Duration.ofSeconds(timeoutSeconds))
+                .until(ExpectedConditions.elementToBeClickable(locator)));
         } catch (TimeoutException e) {
             Logger.error("Element not clickable after " + timeoutSeconds + " seconds: " + locator);
             throw e;
@@ -49,11 +87,10 @@ public class WebElementWait {
     }
 
     public static boolean waitForInvisibility(WebDriver driver, By locator, int timeoutSeconds) {
-        Logger.debug("Waiting for element invisibility: " + locator);
+        Logger.debug(() -> "Waiting for element invisibility: " + locator);
         try {
-            return new WebDriverWait(driver, Duration.ofSeconds(timeoutSeconds))
-                .pollingEvery(Duration.ofMillis(POLLING_INTERVAL))
-                .until(ExpectedConditions.invisibilityOfElementLocated(locator));
+            return Metrics.time("wait.invisibility", () -> new AdaptiveWait(driver, Duration.ofSeconds(timeoutSeconds))
+                .until(ExpectedConditions.invisibilityOfElementLocated(locator)));
         } catch (TimeoutException e) {
             Logger.error("Element still visible after " + timeoutSeconds + " seconds: " + locator);
             throw e;
@@ -65,8 +102,53 @@ public class WebElementWait {
     }
 
     public static <T> T waitFor(WebDriver driver, Function<WebDriver, T> condition, int timeoutSeconds) {
-        return new WebDriverWait(driver, Duration.ofSeconds(timeoutSeconds))
-            .pollingEvery(Duration.ofMillis(POLLING_INTERVAL))
-            .until(condition);
+        return Metrics.time("wait.condition", () -> new AdaptiveWait(driver, Duration.ofSeconds(timeoutSeconds))
+            .until(condition));
+    }
+
+    /**
+     * Clicks the element and marks the click on the page, so the next
+     * {@link #waitForPageReady} or {@link #waitForPageReadyOrButton} does not take
+     * the quiet page before the portal answers for the page after it.
+     */
+    public static void click(WebDriver driver, WebElement element) {
+        ((JavascriptExecutor) driver).executeScript(MARK_ACTION_SCRIPT);
+        element.click();
+    }
+
+    public static void waitForPageReady(WebDriver driver) {
+        waitForPageReady(driver, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Waits until the page has finished loading and any ASP.NET async postback has
+     * completed and the DOM has settled, instead of sleeping for a fixed time.
+     */
+    public static void waitForPageReady(WebDriver driver, int timeoutSeconds) {
+        long quietMillis = AppConfig.getWaitDomQuietPeriod();
+        long responseMillis = AppConfig.getWaitResponseTimeout();
+        try {
+            Metrics.time("wait.pageReady", () -> new AdaptiveWait(driver, Duration.ofSeconds(timeoutSeconds))
+                .until(d -> (Boolean) ((JavascriptExecutor) d).executeScript(PAGE_IDLE_SCRIPT, quietMillis, responseMillis)));
+        } catch (TimeoutException e) {
+            Logger.error("Page not idle after " + timeoutSeconds + " seconds: " + driver.getCurrentUrl());
+            throw e;
+        }
+    }
+
+    /**
+     * Waits like {@link #waitForPageReady} but returns as soon as a button with the
+     * given text becomes visible. Returns true if the button appeared, false if the
+     * page settled without it.
+     */
+    public static boolean waitForPageReadyOrButton(WebDriver driver, String buttonText, int timeoutSeconds) {
+        long quietMillis = AppConfig.getWaitDomQuietPeriod();
+        long responseMillis = AppConfig.getWaitResponseTimeout();
+        Wait<WebDriver> wait = new AdaptiveWait(driver, Duration.ofSeconds(timeoutSeconds));
+        Object state = Metrics.time("wait.pageReadyOrButton", () -> wait.until(d -> {
+            Object result = ((JavascriptExecutor) d).executeScript(BUTTON_OR_IDLE_SCRIPT, quietMillis, responseMillis, buttonText);
+            return Boolean.FALSE.equals(result) ? null : result;
+        }));
+        return "button".equals(state);
     }
 }
\ No newline at end of file
@@ -0,0 +1,214 @@
+package com.cds.automation.util;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background log sink. Callers only enqueue; a single writer thread owns the open
+ * log file, formats entries in batches, mirrors them to the console and rotates
+ * the file once it grows past the configured size.
+ *
+ * The application closes it as the last step of its shutdown, see
+ * {@link Logger#shutdown()}. Entries logged after that are refused and the
+ * caller writes them itself.
+ */
+class AsyncLogWriter {
+    private static final int BATCH_SIZE = 512;
+
+    private final BlockingQueue<Entry> buffer;
+    private final Path logFile;
+    private final long maxFileSize;
+    private final int maxBackups;
+    private final DateTimeFormatter formatter;
+    private final PrintStream console = System.out;
+    private final Thread writer;
+    private final Object fileLock = new Object();
+    private FileChannel channel;
+    private ByteBuffer bytes = ByteBuffer.allocate(64 * 1024);
+    private long cachedSecond = -1;
+    private String cachedTimestamp;
+    private volatile boolean running = true;
+    private volatile boolean closed;
+
+    private static final class Entry {
+        final long timeMillis;
+        final Logger.LogLevel level;
+        final String message;
+
+        Entry(long timeMillis, Logger.LogLevel level, String message) {
+            this.timeMillis = timeMillis;
+            this.level = level;
+            this.message = message;
+        }
+    }
+
+    AsyncLogWriter(Path logFile, int capacity, long maxFileSize, int maxBackups, DateTimeFormatter formatter)
+            throws IOException {
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.logFile = logFile;
+        this.maxFileSize = maxFileSize;
+        this.maxBackups = maxBackups;
+        this.formatter = formatter;
+        this.channel = openChannel();
+        this.writer = new Thread(this::drainLoop, "log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /** Returns false if the writer is closed and the entry was not taken. */
+    boolean enqueue(Logger.LogLevel level, String message) {
+        if (closed) {
+            return false;
+        }
+        Entry entry = new Entry(System.currentTimeMillis(), level, message);
+        try {
+            // Buffer full: wait rather than drop, the writer is only ever briefly behind, but not past close
+            while (!buffer.offer(entry, 200, TimeUnit.MILLISECONDS)) {
+                if (closed) {
+                    return false;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        // Taken back if close() had already drained the buffer for the last time
+        return !(closed && buffer.remove(entry));
+    }
+
+    void clear() {
+        synchronized (fileLock) {
+            try {
+                channel.truncate(0);
+            } catch (IOException e) {
+                System.err.println("Failed to clear log file: " + e.getMessage());
+            }
+        }
+    }
+
+    private void drainLoop() {
+        List<Entry> batch = new ArrayList<>(BATCH_SIZE);
+        while (running || !buffer.isEmpty()) {
+            try {
+                Entry first = buffer.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                buffer.drainTo(batch, BATCH_SIZE - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                running = false;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<Entry> batch) {
+        StringBuilder text = new StringBuilder(batch.size() * 96);
+        for (Entry entry : batch) {
+            text.append('[').append(timestamp(entry.timeMillis)).append("] ")
+                .append(entry.level).append(": ").append(entry.message).append(System.lineSeparator());
+        }
+        String formatted = text.toString();
+        console.print(formatted);
+
+        byte[] encoded = formatted.getBytes(StandardCharsets.UTF_8);
+        if (bytes.capacity() < encoded.length) {
+            bytes = ByteBuffer.allocate(encoded.length);
+        }
+        bytes.clear();
+        bytes.put(encoded).flip();
+        synchronized (fileLock) {
+            try {
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                if (channel.size() >= maxFileSize) {
+                    rotate();
+                }
+            } catch (IOException e) {
+                System.err.println("Failed to write to log file: " + e.getMessage());
+            }
+        }
+    }
+
+    private String timestamp(long timeMillis) {
+        long second = timeMillis / 1000;
+        if (second != cachedSecond) {
+            cachedSecond = second;
+            cachedTimestamp = LocalDateTime.ofInstant(Instant.ofEpochMilli(timeMillis), ZoneId.systemDefault())
+                .format(formatter);
+        }
+        return cachedTimestamp;
+    }
+
+    private void rotate() throws IOException {
+        channel.close();
+        for (int i = maxBackups - 1; i >= 1; i--) {
+            Path older = backup(i);
+            if (Files.exists(older)) {
+                Files.move(older, backup(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxBackups > 0) {
+            Files.move(logFile, backup(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.deleteIfExists(logFile);
+        }
+        channel = openChannel();
+    }
+
+    private Path backup(int index) {
+        return Paths.get(logFile.toString() + "." + index);
+    }
+
+    private FileChannel openChannel() throws IOException {
+        return FileChannel.open(logFile, StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /** Writes out what is buffered and closes the file. */
+    synchronized void close() {
+        if (closed) {
+            return;
+        }
+        running = false;
+        try {
+            writer.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closed = true;
+        if (!writer.isAlive()) {
+            List<Entry> rest = new ArrayList<>();
+            buffer.drainTo(rest);
+            if (!rest.isEmpty()) {
+                writeBatch(rest);
+            }
+        }
+        synchronized (fileLock) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("Failed to close log file: " + e.getMessage());
+            }
+        }
+    }
+}
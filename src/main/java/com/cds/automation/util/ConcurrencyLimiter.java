@@ -0,0 +1,76 @@
+package com.cds.automation.util;
+
+/**
+ * Caps how many calls run at once with a limit that adapts by AIMD: every call
+ * that comes back overloaded (an error pointing at the server, or slower than
+ * the latency limit) multiplies the limit by the backoff factor, and a clean
+ * call made while the limit was fully in use raises it by 1/limit, so about one
+ * more slot per round of calls.
+ *
+ * Calls already in flight when the limit dropped were sent under the old load,
+ * so their results do not lower it again: one decrease per round trip.
+ */
+public final class ConcurrencyLimiter {
+    private final int min;
+    private final int max;
+    private final double backoff;
+    private final long latencyLimitNanos;
+    private double limit;
+    private int inFlight;
+    private int peakInFlight;
+    private long decreasedAt;
+    private long decreases;
+
+    public ConcurrencyLimiter(int min, int max, double backoff, long latencyLimitMillis) {
+        this.min = Math.max(1, min);
+        this.max = Math.max(this.min, max);
+        this.backoff = Math.min(1, Math.max(0.1, backoff));
+        this.latencyLimitNanos = latencyLimitMillis * 1_000_000L;
+        this.limit = this.max;
+        this.decreasedAt = System.nanoTime();
+    }
+
+    /** Blocks until a slot is free and returns the start time to pass to {@link #release}. */
+    public synchronized long acquire() throws InterruptedException {
+        while (inFlight >= (int) limit) {
+            wait();
+        }
+        inFlight++;
+        peakInFlight = Math.max(peakInFlight, inFlight);
+        return System.nanoTime();
+    }
+
+    /**
+     * Frees the slot and adjusts the limit. Returns a description of the
+     * decrease if this call lowered it, otherwise null.
+     */
+    public synchronized String release(long startedAt, boolean failed) {
+        long now = System.nanoTime();
+        int load = inFlight;
+        inFlight--;
+        notifyAll();
+
+        boolean slow = latencyLimitNanos > 0 && now - startedAt > latencyLimitNanos;
+        if (failed || slow) {
+            if (startedAt - decreasedAt <= 0) {
+                return null;
+            }
+            double before = limit;
+            // Below the cap the load actually carried is what overloaded the server
+            limit = Math.max(min, Math.min(limit, load) * backoff);
+            decreasedAt = now;
+            decreases++;
+            return String.format("%s after %d ms with %d in flight, limit %.1f -> %.1f",
+                failed ? "failed" : "slow", (now - startedAt) / 1_000_000, load, before, limit);
+        }
+        if (load >= (int) limit) {
+            limit = Math.min(max, limit + 1 / limit);
+        }
+        return null;
+    }
+
+    public synchronized double getLimit() { return limit; }
+    public synchronized int getInFlight() { return inFlight; }
+    public synchronized int getPeakInFlight() { return peakInFlight; }
+    public synchronized long getDecreases() { return decreases; }
+}
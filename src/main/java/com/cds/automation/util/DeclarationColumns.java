@@ -0,0 +1,161 @@
+package com.cds.automation.util;
+
+import com.cds.automation.config.AppConfig;
+import com.cds.automation.model.DeclarationData;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.IntFunction;
+
+/**
+ * Maps the cells of a Data row onto {@link DeclarationData}. Without a mapping
+ * file the historical fixed column positions are used. With one, each field
+ * names its header (alternatives separated by {@code |}, an empty value leaves
+ * the field blank) and the headers are resolved once against row 0, so reading
+ * a row is only an array lookup per field.
+ *
+ * The action column is optional in both layouts: the legacy one picks up a
+ * header named "Action", a mapping file may name it like any other field. Rows
+ * without a value there use the action from the Other sheet.
+ */
+final class DeclarationColumns {
+    // Field names as used in the mapping file, in DeclarationData constructor order
+    static final String[] FIELDS = {
+        "referenceId", "recipientAddress1", "recipientAddress2", "recipientCity", "recipientState",
+        "recipientPostCode", "recipientCountry", "recipientName", "recipientTelephone", "recipientEmail",
+        "itemDescription", "quantity", "weight", "itemValue", "currency", "action"
+    };
+    private static final int ACTION = 15;
+    private static final String LEGACY_ACTION_HEADER = "action";
+    private static final int UNMAPPED = -1;
+    private static final DeclarationColumns LEGACY =
+        new DeclarationColumns(new int[]{0, 6, 7, 5, 8, 9, 10, 11, 12, 13, 16, 17, 20, 21, 22, UNMAPPED});
+
+    private final int[] columns;
+
+    private DeclarationColumns(int[] columns) {
+        this.columns = columns;
+    }
+
+    static DeclarationColumns legacy() {
+        return LEGACY;
+    }
+
+    /** The fixed layout, plus the action column if the header row has one. */
+    static DeclarationColumns legacy(String[] header) {
+        for (int column = 0; column < header.length; column++) {
+            if (LEGACY_ACTION_HEADER.equals(normalize(header[column]))) {
+                int[] columns = LEGACY.columns.clone();
+                columns[ACTION] = column;
+                return new DeclarationColumns(columns);
+            }
+        }
+        return LEGACY;
+    }
+
+    static boolean isHeaderMapped() {
+        return !AppConfig.getColumnMappingFile().isEmpty();
+    }
+
+    /** Loads the configured mapping file and resolves it against the header row. */
+    static DeclarationColumns forHeader(String[] header) throws IOException {
+        String mappingFile = AppConfig.getColumnMappingFile();
+        Properties mapping = new Properties();
+        try (Reader in = Files.newBufferedReader(Paths.get(mappingFile), StandardCharsets.UTF_8)) {
+            mapping.load(in);
+        }
+        return compile(mapping, header, mappingFile);
+    }
+
+    static DeclarationColumns compile(Properties mapping, String[] header, String source) {
+        Map<String, Integer> headerColumns = new HashMap<>();
+        for (int column = 0; column < header.length; column++) {
+            String name = normalize(header[column]);
+            if (!name.isEmpty()) {
+                headerColumns.putIfAbsent(name, column);
+            }
+        }
+
+        List<String> problems = new ArrayList<>();
+        for (String key : mapping.stringPropertyNames()) {
+            if (!Arrays.asList(FIELDS).contains(key)) {
+                problems.add("unknown field '" + key + "'");
+            }
+        }
+
+        int[] columns = new int[FIELDS.length];
+        for (int field = 0; field < FIELDS.length; field++) {
+            String headers = mapping.getProperty(FIELDS[field]);
+            if (headers == null && field == ACTION) {
+                columns[field] = UNMAPPED;
+                continue;
+            }
+            if (headers == null) {
+                problems.add("no entry for field '" + FIELDS[field] + "'");
+                continue;
+            }
+            columns[field] = resolve(headers, headerColumns);
+            if (field == 0 && headers.trim().isEmpty()) {
+                problems.add("field 'referenceId' cannot be left blank");
+            } else if (columns[field] == UNMAPPED && !headers.trim().isEmpty()) {
+                problems.add("header '" + headers.trim() + "' for field '" + FIELDS[field] + "' not found");
+            }
+        }
+
+        if (!problems.isEmpty()) {
+            throw new IllegalStateException("Column mapping " + source + " does not match the Data sheet: "
+                + String.join("; ", problems) + ". Header row is " + Arrays.toString(header));
+        }
+        return new DeclarationColumns(columns);
+    }
+
+    private static int resolve(String headers, Map<String, Integer> headerColumns) {
+        for (String candidate : headers.split("\\|")) {
+            Integer column = headerColumns.get(normalize(candidate));
+            if (column != null) {
+                return column;
+            }
+        }
+        return UNMAPPED;
+    }
+
+    private static String normalize(String header) {
+        return header == null ? "" : header.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    DeclarationData toDeclaration(IntFunction<String> cell, String defaultAction) {
+        int[] c = columns;
+        String action = value(cell, c[ACTION]);
+        return new DeclarationData(
+            value(cell, c[0]),   // referenceId
+            value(cell, c[1]),   // recipientAddress1
+            value(cell, c[2]),   // recipientAddress2
+            value(cell, c[3]),   // recipientCity
+            value(cell, c[4]),   // recipientState
+            value(cell, c[5]),   // recipientPostCode
+            value(cell, c[6]),   // recipientCountry
+            value(cell, c[7]),   // recipientName
+            value(cell, c[8]),   // recipientTelephone
+            value(cell, c[9]),   // recipientEmail
+            value(cell, c[10]),  // itemDescription
+            value(cell, c[11]),  // quantity
+            value(cell, c[12]),  // weight
+            value(cell, c[13]),  // itemValue
+            value(cell, c[14]),  // currency
+            action.trim().isEmpty() ? defaultAction : action
+        );
+    }
+
+    private static String value(IntFunction<String> cell, int column) {
+        return column == UNMAPPED ? "" : cell.apply(column);
+    }
+}
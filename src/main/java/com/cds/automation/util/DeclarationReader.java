@@ -0,0 +1,41 @@
+package com.cds.automation.util;
+
+import com.cds.automation.config.AppConfig;
+import com.cds.automation.model.DeclarationData;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public interface DeclarationReader extends AutoCloseable {
+    String[] readCredentials();
+
+    /** Every account listed in the workbook, the one from {@link #readCredentials()} first. */
+    default List<String[]> readAccounts() {
+        return Collections.singletonList(readCredentials());
+    }
+
+    String[] readSenderInfo();
+
+    String getAction();
+
+    Stream<DeclarationData> streamDeclarations();
+
+    default List<DeclarationData> readDeclarations() {
+        try (Stream<DeclarationData> declarations = streamDeclarations()) {
+            return declarations.collect(Collectors.toList());
+        }
+    }
+
+    @Override
+    void close() throws IOException;
+
+    static DeclarationReader open(String filePath) throws IOException {
+        if (AppConfig.isStreamingExcel()) {
+            Logger.info("Opening " + filePath + " in streaming mode");
+            return new StreamingExcelReader(filePath);
+        }
+        return new ExcelReader(filePath);
+    }
+}
@@ -1,26 +1,57 @@
 package com.cds.automation.util;
 
 import com.cds.automation.model.DeclarationData;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.usermodel.XSSFCell;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import java.io.*;
-import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
-public class ExcelReader implements AutoCloseable {
+public class ExcelReader implements DeclarationReader {
+    // Further accounts go below the first one, A3:C4; row 5 holds the sender
+    private static final int LAST_ACCOUNT_ROW = 3;
+
+    private final OPCPackage pkg;
     private final Workbook workbook;
     private final Sheet dataSheet;
     private final Sheet otherSheet;
-    private static final DecimalFormat decimalFormat = new DecimalFormat("#.###");
+    private final FormulaEvaluator evaluator;
+    private final DeclarationColumns columns;
 
     public ExcelReader(String filePath) throws IOException {
-        FileInputStream file = new FileInputStream(new File(filePath));
-        this.workbook = new XSSFWorkbook(file);
+        // Opened from the file rather than a stream: POI then reads parts from the zip
+        // on demand instead of buffering each one, which large Data sheets overflow
+        try {
+            this.pkg = OPCPackage.open(filePath, PackageAccess.READ);
+        } catch (InvalidFormatException e) {
+            throw new IOException("Unable to open workbook " + filePath, e);
+        }
+        try {
+            this.workbook = new XSSFWorkbook(pkg);
+        } catch (IOException | RuntimeException e) {
+            pkg.revert();
+            throw e;
+        }
         this.dataSheet = workbook.getSheet("Data");
         this.otherSheet = workbook.getSheet("Other");
+        // One evaluator for the whole workbook so results of shared dependencies are cached
+        this.evaluator = workbook.getCreationHelper().createFormulaEvaluator();
+        try {
+            this.columns = DeclarationColumns.isHeaderMapped()
+                ? DeclarationColumns.forHeader(readHeader())
+                : DeclarationColumns.legacy(readHeader());
+        } catch (IOException | RuntimeException e) {
+            pkg.revert();
+            throw e;
+        }
     }
 
+    @Override
     public String[] readCredentials() {
         return new String[]{
             getCellValue(otherSheet.getRow(1).getCell(0)), // username
@@ -29,6 +60,22 @@ public class ExcelReader implements AutoCloseable {
         };
     }
 
+    @Override
+    public List<String[]> readAccounts() {
+        List<String[]> accounts = new ArrayList<>();
+        accounts.add(readCredentials());
+        for (int i = 2; i <= LAST_ACCOUNT_ROW; i++) {
+            Row row = otherSheet.getRow(i);
+            String username = row == null ? "" : getCellValue(row.getCell(0));
+            if (username.isEmpty()) {
+                break;
+            }
+            accounts.add(new String[]{username, getCellValue(row.getCell(1)), getCellValue(row.getCell(2))});
+        }
+        return accounts;
+    }
+
+    @Override
     public String[] readSenderInfo() {
         Row senderRow = otherSheet.getRow(4);
         return new String[]{
@@ -42,12 +89,20 @@ public class ExcelReader implements AutoCloseable {
         };
     }
 
+    @Override
     public String getAction() {
         return getCellValue(otherSheet.getRow(7).getCell(2));
     }
 
+    @Override
+    public Stream<DeclarationData> streamDeclarations() {
+        return readDeclarations().stream();
+    }
+
+    @Override
     public List<DeclarationData> readDeclarations() {
         List<DeclarationData> declarations = new ArrayList<>();
+        String defaultAction = getAction();
         int firstRow = 1; // Assuming first row is header
         int lastRow = dataSheet.getLastRowNum();
 
@@ -55,7 +110,7 @@ public class ExcelReader implements AutoCloseable {
             Row row = dataSheet.getRow(i);
             if (row == null) continue;
 
-            DeclarationData declaration = createDeclarationFromRow(row);
+            DeclarationData declaration = createDeclarationFromRow(row, defaultAction);
             if (declaration != null) {
                 declarations.add(declaration);
             }
@@ -63,52 +118,84 @@ public class ExcelReader implements AutoCloseable {
         return declarations;
     }
 
-    private DeclarationData createDeclarationFromRow(Row row) {
+    private DeclarationData createDeclarationFromRow(Row row, String defaultAction) {
         try {
-            return new DeclarationData(
-                getCellValue(row.getCell(0)),   // referenceId
-                getCellValue(row.getCell(6)),   // recipientAddress1
-                getCellValue(row.getCell(7)),   // recipientAddress2
-                getCellValue(row.getCell(5)),   // recipientCity
-                getCellValue(row.getCell(8)),   // recipientState
-                getCellValue(row.getCell(9)),   // recipientPostCode
-                getCellValue(row.getCell(10)),  // recipientCountry
-                getCellValue(row.getCell(11)),  // recipientName
-                getCellValue(row.getCell(12)),  // recipientTelephone
-                getCellValue(row.getCell(13)),  // recipientEmail
-                getCellValue(row.getCell(16)),  // itemDescription
-                getCellValue(row.getCell(17)),  // quantity
-                getCellValue(row.getCell(20)),  // weight
-                getCellValue(row.getCell(21)),  // itemValue
-                getCellValue(row.getCell(22))   // currency
-            );
+            return columns.toDeclaration(column -> getCellValue(row.getCell(column)), defaultAction);
         } catch (Exception e) {
             System.err.println("Error reading row " + row.getRowNum() + ": " + e.getMessage());
             return null;
         }
     }
 
+    private String[] readHeader() {
+        Row header = dataSheet.getRow(0);
+        if (header == null) {
+            return new String[0];
+        }
+        String[] names = new String[Math.max(0, header.getLastCellNum())];
+        for (int column = 0; column < names.length; column++) {
+            names[column] = getCellValue(header.getCell(column));
+        }
+        return names;
+    }
+
     private String getCellValue(Cell cell) {
+        return getCellValue(cell, evaluator);
+    }
+
+    static String getCellValue(Cell cell, FormulaEvaluator evaluator) {
         if (cell == null) return "";
         
         switch (cell.getCellType()) {
             case STRING:
                 return cell.getStringCellValue();
             case NUMERIC:
-                return decimalFormat.format(cell.getNumericCellValue());
+                return NumberFormatter.format(cell.getNumericCellValue());
             case BOOLEAN:
                 return String.valueOf(cell.getBooleanCellValue());
             case FORMULA:
-                return cell.getCellFormula();
+                return getFormulaValue(cell, evaluator);
             default:
                 return "";
         }
     }
 
+    private static String getFormulaValue(Cell cell, FormulaEvaluator evaluator) {
+        String reference = cell.getAddress().formatAsString();
+        if (hasCachedResult(cell)) {
+            switch (cell.getCachedFormulaResultType()) {
+                case NUMERIC:
+                    return NumberFormatter.format(cell.getNumericCellValue());
+                case STRING:
+                    return cell.getStringCellValue();
+                case BOOLEAN:
+                    return String.valueOf(cell.getBooleanCellValue());
+                case ERROR:
+                    throw FormulaResults.errorResult(reference,
+                        FormulaError.forInt(cell.getErrorCellValue()).getString());
+                default:
+                    return "";
+            }
+        }
+
+        CellValue result;
+        try {
+            result = evaluator.evaluate(cell);
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Cannot evaluate formula =" + cell.getCellFormula()
+                + " in " + reference + ": " + e.getMessage(), e);
+        }
+        return FormulaResults.format(result, reference);
+    }
+
+    // Files written by Excel always carry the last computed result; generated ones may not
+    private static boolean hasCachedResult(Cell cell) {
+        return !(cell instanceof XSSFCell) || ((XSSFCell) cell).getCTCell().isSetV();
+    }
+
     @Override
     public void close() throws IOException {
-        if (workbook != null) {
-            workbook.close();
-        }
+        // Read-only package: revert instead of close, which would try to save it
+        pkg.revert();
     }
 }
\ No newline at end of file
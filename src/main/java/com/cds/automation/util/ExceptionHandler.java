@@ -15,32 +15,12 @@ public class ExceptionHandler {
         }
 
         // Log stack trace for debugging
-        Logger.debug("Stack trace:");
-        for (StackTraceElement element : e.getStackTrace()) {
-            Logger.debug(element.toString());
-        }
-    }
-
-    public static <T> T withRetry(ThrowingSupplier<T> operation, String operationName, int maxRetries) {
-        int attempts = 0;
-        while (attempts < maxRetries) {
-            try {
-                return operation.get();
-            } catch (Exception e) {
-                attempts++;
-                Logger.error(String.format("Attempt %d/%d failed for %s", attempts, maxRetries, operationName));
-                if (attempts >= maxRetries) {
-                    throw new RuntimeException("Maximum retry attempts reached for " + operationName, e);
-                }
-                try {
-                    Thread.sleep(1000 * attempts); // Exponential backoff
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    throw new RuntimeException("Interrupted during retry", ie);
-                }
+        if (Logger.isEnabled(Logger.LogLevel.DEBUG)) {
+            Logger.debug("Stack trace:");
+            for (StackTraceElement element : e.getStackTrace()) {
+                Logger.debug(element.toString());
             }
         }
-        throw new RuntimeException("Unexpected error in retry logic");
     }
 
     @FunctionalInterface
@@ -0,0 +1,32 @@
+package com.cds.automation.util;
+
+import org.apache.poi.ss.usermodel.CellValue;
+import org.apache.poi.ss.usermodel.FormulaError;
+
+/** Renders the result of a formula the same way a literal cell of that type is rendered. */
+final class FormulaResults {
+    private FormulaResults() {
+    }
+
+    static String format(CellValue result, String cellReference) {
+        if (result == null) {
+            return "";
+        }
+        switch (result.getCellType()) {
+            case NUMERIC:
+                return NumberFormatter.format(result.getNumberValue());
+            case STRING:
+                return result.getStringValue();
+            case BOOLEAN:
+                return String.valueOf(result.getBooleanValue());
+            case ERROR:
+                throw errorResult(cellReference, FormulaError.forInt(result.getErrorValue()).getString());
+            default:
+                return "";
+        }
+    }
+
+    static IllegalStateException errorResult(String cellReference, String error) {
+        return new IllegalStateException("Formula in " + cellReference + " evaluates to " + error);
+    }
+}
@@ -1,14 +1,17 @@
 package com.cds.automation.util;
 
+import com.cds.automation.config.AppConfig;
 import java.io.*;
 import java.nio.file.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.function.Supplier;
 
 public class Logger {
     private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     private static final String LOG_FILE = "automation.log";
-    private static LogLevel currentLevel = LogLevel.INFO;
+    private static volatile LogLevel currentLevel = LogLevel.INFO;
+    private static final AsyncLogWriter asyncWriter = createAsyncWriter();
 
     public enum LogLevel {
         DEBUG(0), INFO(1), ERROR(2);
@@ -40,11 +43,38 @@ public class Logger {
         log(LogLevel.DEBUG, message);
     }
 
+    // Lazy variants: the message is only built when the level is enabled
+    public static void info(Supplier<String> message) {
+        log(LogLevel.INFO, message);
+    }
+
+    public static void error(Supplier<String> message) {
+        log(LogLevel.ERROR, message);
+    }
+
+    public static void debug(Supplier<String> message) {
+        log(LogLevel.DEBUG, message);
+    }
+
+    public static boolean isEnabled(LogLevel level) {
+        return currentLevel.isLoggable(level);
+    }
+
+    private static void log(LogLevel level, Supplier<String> message) {
+        if (currentLevel.isLoggable(level)) {
+            log(level, message.get());
+        }
+    }
+
     private static void log(LogLevel level, String message) {
         if (!currentLevel.isLoggable(level)) {
             return;
         }
 
+        if (asyncWriter != null && asyncWriter.enqueue(level, message)) {
+            return;
+        }
+
         String timestamp = LocalDateTime.now().format(formatter);
         String logMessage = String.format("[%s] %s: %s%n", timestamp, level, message);
 
@@ -64,11 +94,38 @@ public class Logger {
         }
     }
 
+    /**
+     * Writes out the buffered entries and closes the log file. Called last in the
+     * application's shutdown; anything logged afterwards is written synchronously.
+     */
+    public static void shutdown() {
+        if (asyncWriter != null) {
+            asyncWriter.close();
+        }
+    }
+
     public static void clearLogs() {
+        if (asyncWriter != null) {
+            asyncWriter.clear();
+            return;
+        }
         try {
             Files.deleteIfExists(Paths.get(LOG_FILE));
         } catch (IOException e) {
             System.err.println("Failed to clear log file: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    private static AsyncLogWriter createAsyncWriter() {
+        if (!AppConfig.isAsyncLogging()) {
+            return null;
+        }
+        try {
+            return new AsyncLogWriter(Paths.get(LOG_FILE), AppConfig.getLogBufferSize(),
+                AppConfig.getLogMaxFileSize(), AppConfig.getLogMaxBackups(), formatter);
+        } catch (IOException e) {
+            System.err.println("Failed to open log file, falling back to synchronous logging: " + e.getMessage());
+            return null;
+        }
+    }
+}
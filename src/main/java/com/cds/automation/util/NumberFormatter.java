@@ -0,0 +1,85 @@
+package com.cds.automation.util;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+
+/**
+ * Formats numeric cell values exactly like {@code new DecimalFormat("#.###")}
+ * (HALF_EVEN rounding to three decimals, no grouping, trailing zeros dropped,
+ * "-0" for negatives that round to zero) without the per-call allocations and
+ * without shared mutable state, so it can be called from any number of threads.
+ *
+ * Values are scaled by 1000 and rounded in double arithmetic. That is exact
+ * except when the scaled value sits within rounding error of a .5 tie, or is too
+ * large to hold as a long; those rare cases, NaN and infinities go to a
+ * per-thread DecimalFormat.
+ */
+final class NumberFormatter {
+    private static final String PATTERN = "#.###";
+    // Above this, x * 1000 no longer fits the 53-bit mantissa exactly enough to round
+    private static final double FAST_PATH_LIMIT = 9.0e12;
+
+    private static final DecimalFormatSymbols SYMBOLS = DecimalFormatSymbols.getInstance();
+    private static final char DECIMAL_SEPARATOR = SYMBOLS.getDecimalSeparator();
+    private static final char MINUS = SYMBOLS.getMinusSign();
+    private static final char ZERO = SYMBOLS.getZeroDigit();
+    private static final ThreadLocal<DecimalFormat> FALLBACK =
+        ThreadLocal.withInitial(() -> new DecimalFormat(PATTERN, SYMBOLS));
+
+    private NumberFormatter() {
+    }
+
+    static String format(double value) {
+        double magnitude = Math.abs(value);
+        if (!(magnitude < FAST_PATH_LIMIT)) {
+            return FALLBACK.get().format(value);
+        }
+
+        double scaled = magnitude * 1000;
+        double floor = Math.floor(scaled);
+        double fraction = scaled - floor;
+        if (Math.abs(fraction - 0.5) <= 2 * Math.ulp(scaled)) {
+            return FALLBACK.get().format(value);
+        }
+
+        long units = (long) floor;
+        if (fraction > 0.5) {
+            units++;
+        }
+        boolean negative = value < 0 || (value == 0 && 1 / value < 0);
+        return render(negative, units / 1000, (int) (units % 1000));
+    }
+
+    private static String render(boolean negative, long integerPart, int thousandths) {
+        char[] buffer = new char[24];
+        int end = buffer.length;
+        int start = end;
+
+        if (thousandths != 0) {
+            int digits = 3;
+            while (thousandths % 10 == 0) {
+                thousandths /= 10;
+                digits--;
+            }
+            for (int i = 0; i < digits; i++) {
+                buffer[--start] = (char) (ZERO + thousandths % 10);
+                thousandths /= 10;
+            }
+            buffer[--start] = DECIMAL_SEPARATOR;
+        }
+        start = writeDigits(buffer, start, integerPart);
+
+        if (negative) {
+            buffer[--start] = MINUS;
+        }
+        return new String(buffer, start, end - start);
+    }
+
+    private static int writeDigits(char[] buffer, int start, long value) {
+        do {
+            buffer[--start] = (char) (ZERO + value % 10);
+            value /= 10;
+        } while (value != 0);
+        return start;
+    }
+}
@@ -0,0 +1,142 @@
+package com.cds.automation.util;
+
+import com.cds.automation.config.AppConfig;
+import com.cds.automation.metrics.Metrics;
+import org.openqa.selenium.TimeoutException;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Paces every request the workers send to the customs portal: page loads,
+ * logins and postbacks, from browser and HTTP sessions alike. A token bucket
+ * caps the request rate ({@code throttle.rate}, off by default) and an adaptive
+ * limit caps how many requests are in flight at once. Timeouts, I/O errors and
+ * round trips slower than {@code throttle.latency.limit} shrink that limit;
+ * clean round trips grow it back, so the run settles at what the portal keeps
+ * up with.
+ *
+ * A request issued while the same thread is already inside one (a re-login
+ * during a search) passes straight through instead of waiting on itself.
+ */
+public final class PortalThrottle {
+    // Requests per second are counted over the last RATE_WINDOW seconds, one counter per second
+    private static final int RATE_WINDOW = 10;
+    private static final PortalThrottle SHARED = new PortalThrottle(
+        new RateLimiter(AppConfig.getThrottleRate(), AppConfig.getThrottleBurst()),
+        new ConcurrencyLimiter(AppConfig.getThrottleMinConcurrency(), AppConfig.getThrottleMaxConcurrency(),
+            AppConfig.getThrottleBackoff(), AppConfig.getThrottleLatencyLimit()));
+
+    private final RateLimiter rate;
+    private final ConcurrencyLimiter concurrency;
+    private final ThreadLocal<Boolean> inside = ThreadLocal.withInitial(() -> false);
+    private final long[] counts = new long[RATE_WINDOW];
+    private final long[] seconds = new long[RATE_WINDOW];
+    private long firstSecond;
+
+    public PortalThrottle(RateLimiter rate, ConcurrencyLimiter concurrency) {
+        this.rate = rate;
+        this.concurrency = concurrency;
+    }
+
+    public static PortalThrottle shared() {
+        return SHARED;
+    }
+
+    public void run(String operation, Runnable action) {
+        call(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public <T, E extends Exception> T call(String operation, Request<T, E> request) throws E {
+        if (inside.get()) {
+            return request.send();
+        }
+        long startedAt = Metrics.time("throttle.wait", this::acquire);
+        inside.set(true);
+        boolean overloaded = false;
+        try {
+            return request.send();
+        } catch (Exception e) {
+            overloaded = isOverload(e);
+            throw e;
+        } finally {
+            inside.set(false);
+            countRequest();
+            String decrease = concurrency.release(startedAt, overloaded);
+            if (decrease != null) {
+                Logger.info("Portal is struggling, " + operation + " " + decrease);
+            }
+        }
+    }
+
+    private long acquire() {
+        try {
+            rate.acquire();
+            return concurrency.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the portal throttle", e);
+        }
+    }
+
+    /** Failures that say the portal is overloaded rather than that the page or data is wrong. */
+    private static boolean isOverload(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            // Covers socket timeouts, resets and the HTTP error statuses WebFormsClient reports
+            if (cause instanceof TimeoutException || cause instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private synchronized void countRequest() {
+        long second = System.currentTimeMillis() / 1000;
+        if (firstSecond == 0) {
+            firstSecond = second;
+        }
+        int slot = (int) (second % RATE_WINDOW);
+        if (seconds[slot] != second) {
+            seconds[slot] = second;
+            counts[slot] = 0;
+        }
+        counts[slot]++;
+    }
+
+    /** Requests completed per second over the last few seconds. */
+    public synchronized double getCurrentRate() {
+        long now = System.currentTimeMillis() / 1000;
+        long total = 0;
+        for (int i = 0; i < RATE_WINDOW; i++) {
+            // The current second is still filling up, so it is left out
+            if (seconds[i] < now && now - seconds[i] < RATE_WINDOW) {
+                total += counts[i];
+            }
+        }
+        long elapsed = Math.min(RATE_WINDOW - 1, now - firstSecond);
+        return elapsed > 0 ? total / (double) elapsed : 0;
+    }
+
+    public double getConcurrencyLimit() { return concurrency.getLimit(); }
+    public int getInFlight() { return concurrency.getInFlight(); }
+
+    /** One line with the live figures, for the progress log. */
+    public String describe() {
+        StringBuilder line = new StringBuilder(String.format(Locale.ROOT,
+            "%.1f req/s, %d in flight, concurrency limit %.1f (peak %d, lowered %d time(s))",
+            getCurrentRate(), concurrency.getInFlight(), concurrency.getLimit(),
+            concurrency.getPeakInFlight(), concurrency.getDecreases()));
+        if (rate.getRatePerSecond() > 0) {
+            line.append(String.format(Locale.ROOT, ", rate limit %.1f req/s (%d wait(s), %d ms waited)",
+                rate.getRatePerSecond(), rate.getWaits(), rate.getWaitedMillis()));
+        }
+        return line.toString();
+    }
+
+    @FunctionalInterface
+    public interface Request<T, E extends Exception> {
+        T send() throws E;
+    }
+}
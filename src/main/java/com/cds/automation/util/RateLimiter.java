@@ -0,0 +1,53 @@
+package com.cds.automation.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket: lets calls through at {@code ratePerSecond} on average, with
+ * bursts of up to {@code burst} calls after an idle spell. A caller takes its
+ * token under the lock, running the bucket into debt if need be, and sleeps off
+ * the debt outside it, so waiters go through in the order they arrived.
+ */
+public final class RateLimiter {
+    private final double ratePerSecond;
+    private final double burst;
+    private double tokens;
+    private long refilledAt = System.nanoTime();
+    private long waits;
+    private long waitedNanos;
+
+    /** A rate of zero or less disables the limit. */
+    public RateLimiter(double ratePerSecond, int burst) {
+        this.ratePerSecond = ratePerSecond;
+        this.burst = Math.max(1, burst);
+        this.tokens = this.burst;
+    }
+
+    public void acquire() throws InterruptedException {
+        long wait = reserve();
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    private synchronized long reserve() {
+        if (ratePerSecond <= 0) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - refilledAt) * ratePerSecond / 1e9);
+        refilledAt = now;
+        tokens -= 1;
+        if (tokens >= 0) {
+            return 0;
+        }
+        long wait = (long) (-tokens / ratePerSecond * 1e9);
+        waits++;
+        waitedNanos += wait;
+        return wait;
+    }
+
+    public double getRatePerSecond() { return ratePerSecond; }
+    public synchronized long getWaits() { return waits; }
+    public synchronized long getWaitedMillis() { return waitedNanos / 1_000_000; }
+}
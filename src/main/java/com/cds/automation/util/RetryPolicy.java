@@ -0,0 +1,163 @@
+package com.cds.automation.util;
+
+import com.cds.automation.config.AppConfig;
+import com.cds.automation.metrics.Metrics;
+import org.openqa.selenium.ElementClickInterceptedException;
+import org.openqa.selenium.InvalidArgumentException;
+import org.openqa.selenium.InvalidSelectorException;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.StaleElementReferenceException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Retries an operation with exponential backoff and jitter. Only failures that
+ * can go away on their own are retried: programming and data errors fail on the
+ * first attempt.
+ *
+ * Retries nest (a row retries its fields, which retry their elements), so the
+ * calling thread may set a deadline with {@link #withBudget}; no policy sleeps
+ * past it, which bounds the time one bad row can take.
+ */
+public final class RetryPolicy {
+    private static final ThreadLocal<Long> deadline = new ThreadLocal<>();
+
+    private final int maxAttempts;
+    private final long initialDelayMillis;
+    private final long maxDelayMillis;
+    private final double jitter;
+    private final Predicate<Throwable> retryable;
+
+    private RetryPolicy(int maxAttempts, long initialDelayMillis, long maxDelayMillis, double jitter,
+                        Predicate<Throwable> retryable) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialDelayMillis = initialDelayMillis;
+        this.maxDelayMillis = Math.max(initialDelayMillis, maxDelayMillis);
+        this.jitter = Math.min(1, Math.max(0, jitter));
+        this.retryable = retryable;
+    }
+
+    /** Whole operations: a row, a login, an HTTP round trip. */
+    public static RetryPolicy fromConfig() {
+        return new RetryPolicy(AppConfig.getRetryAttempts(), AppConfig.getRetryDelay(),
+            AppConfig.getRetryMaxDelay(), AppConfig.getRetryJitter(), e -> !isFatal(e));
+    }
+
+    /** Single element interactions, retried only while the page is still settling. */
+    public static RetryPolicy forElements() {
+        return new RetryPolicy(AppConfig.getRetryAttempts(), AppConfig.getRetryElementDelay(),
+            AppConfig.getRetryMaxDelay(), AppConfig.getRetryJitter(), RetryPolicy::isElementNotReady);
+    }
+
+    public void run(String operation, Runnable action) {
+        call(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs the operation until it succeeds, fails with a non-retryable error, runs
+     * out of attempts or would overrun the deadline. The last failure is rethrown
+     * as is when unchecked, wrapped otherwise.
+     */
+    public <T> T call(String operation, ExceptionHandler.ThrowingSupplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (Exception e) {
+                if (!retryable.test(e)) {
+                    throw rethrow(e, operation);
+                }
+                long delay = delayBefore(attempt + 1);
+                if (attempt >= maxAttempts) {
+                    Logger.error(String.format("Giving up on %s after %d attempts: %s",
+                        operation, attempt, e.getMessage()));
+                    throw rethrow(e, operation);
+                }
+                if (!hasTimeFor(delay)) {
+                    Logger.error(String.format("Giving up on %s after %d attempt(s), time budget exhausted: %s",
+                        operation, attempt, e.getMessage()));
+                    throw rethrow(e, operation);
+                }
+                Logger.error(String.format("Attempt %d/%d failed for %s, retrying in %d ms: %s",
+                    attempt, maxAttempts, operation, delay, e.getMessage()));
+                Metrics.recordRetry();
+                sleep(delay);
+            }
+        }
+    }
+
+    /** Runs the action with a deadline that every retry on this thread respects. */
+    public static <T> T withBudget(Duration budget, Supplier<T> action) {
+        Long outer = deadline.get();
+        long limit = System.nanoTime() + budget.toNanos();
+        deadline.set(outer != null && outer - limit < 0 ? outer : limit);
+        try {
+            return action.get();
+        } finally {
+            if (outer != null) {
+                deadline.set(outer);
+            } else {
+                deadline.remove();
+            }
+        }
+    }
+
+    /** Errors that will fail the same way however often they are retried. */
+    public static boolean isFatal(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InvalidSelectorException
+                    || cause instanceof InvalidArgumentException
+                    || cause instanceof NoSuchSessionException
+                    || cause instanceof InterruptedException
+                    || cause instanceof IllegalArgumentException
+                    || cause instanceof NullPointerException
+                    || cause instanceof ClassCastException
+                    || cause instanceof IndexOutOfBoundsException
+                    || cause instanceof UnsupportedOperationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isElementNotReady(Throwable e) {
+        return e instanceof StaleElementReferenceException
+            || e instanceof NoSuchElementException
+            || e instanceof ElementClickInterceptedException;
+    }
+
+    private long delayBefore(int attempt) {
+        double exponential = initialDelayMillis * Math.pow(2, attempt - 2);
+        long capped = (long) Math.min(maxDelayMillis, exponential);
+        // Spread the retries of parallel workers instead of having them hit the site in step
+        return capped - (long) (capped * jitter * ThreadLocalRandom.current().nextDouble());
+    }
+
+    private static boolean hasTimeFor(long delayMillis) {
+        Long limit = deadline.get();
+        return limit == null || limit - System.nanoTime() > delayMillis * 1_000_000L;
+    }
+
+    private static RuntimeException rethrow(Exception e, String operation) {
+        if (e instanceof InterruptedException) {
+            Thread.currentThread().interrupt();
+        }
+        return e instanceof RuntimeException
+            ? (RuntimeException) e
+            : new RuntimeException("Failed to complete " + operation, e);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted during retry", ie);
+        }
+    }
+}
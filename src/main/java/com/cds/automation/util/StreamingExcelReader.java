@@ -0,0 +1,406 @@
+package com.cds.automation.util;
+
+import com.cds.automation.model.DeclarationData;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.ss.usermodel.CellValue;
+import org.apache.poi.ss.usermodel.FormulaEvaluator;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.xml.sax.SAXException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads the workbook through POI's event API: the "Data" sheet is parsed as it is
+ * consumed, so only the current row and the shared-strings table are held in memory.
+ */
+public class StreamingExcelReader implements DeclarationReader {
+    private static final String DATA_SHEET = "Data";
+    private static final String OTHER_SHEET = "Other";
+    private static final int ROW_WIDTH = 23;
+    // Further accounts go below the first one, A3:C4; row 5 holds the sender
+    private static final int LAST_ACCOUNT_ROW = 3;
+
+    private final OPCPackage pkg;
+    private final XSSFReader reader;
+    private final ReadOnlySharedStringsTable sharedStrings;
+    private final XMLInputFactory xmlInputFactory = XMLHelper.newXMLInputFactory();
+    private final Map<Integer, String[]> otherRows;
+    private final DeclarationColumns columns;
+    private XSSFWorkbook evaluationWorkbook;
+    private FormulaEvaluator evaluator;
+
+    public StreamingExcelReader(String filePath) throws IOException {
+        try {
+            this.pkg = OPCPackage.open(filePath, PackageAccess.READ);
+        } catch (OpenXML4JException e) {
+            throw new IOException("Unable to open workbook " + filePath, e);
+        }
+        try {
+            this.reader = new XSSFReader(pkg);
+            this.sharedStrings = new ReadOnlySharedStringsTable(pkg, false);
+            this.otherRows = readWholeSheet(OTHER_SHEET);
+            this.columns = DeclarationColumns.isHeaderMapped()
+                ? DeclarationColumns.forHeader(readHeader())
+                : DeclarationColumns.legacy(readHeader());
+        } catch (OpenXML4JException | SAXException e) {
+            pkg.revert();
+            throw new IOException("Unable to open workbook " + filePath, e);
+        } catch (IOException | RuntimeException e) {
+            pkg.revert();
+            throw e;
+        }
+    }
+
+    @Override
+    public String[] readCredentials() {
+        return new String[]{
+            otherCell(1, 0), // username
+            otherCell(1, 1), // password
+            otherCell(1, 2)  // url
+        };
+    }
+
+    @Override
+    public List<String[]> readAccounts() {
+        List<String[]> accounts = new ArrayList<>();
+        accounts.add(readCredentials());
+        for (int i = 2; i <= LAST_ACCOUNT_ROW && otherRows.containsKey(i) && !otherCell(i, 0).isEmpty(); i++) {
+            accounts.add(new String[]{otherCell(i, 0), otherCell(i, 1), otherCell(i, 2)});
+        }
+        return accounts;
+    }
+
+    @Override
+    public String[] readSenderInfo() {
+        return new String[]{
+            otherCell(4, 2),  // sender name
+            otherCell(4, 3),  // address line 1
+            otherCell(4, 4),  // address line 2
+            otherCell(4, 5),  // city
+            otherCell(4, 6),  // state
+            otherCell(4, 8),  // country
+            otherCell(4, 7)   // telephone
+        };
+    }
+
+    @Override
+    public String getAction() {
+        return otherCell(7, 2);
+    }
+
+    @Override
+    public Stream<DeclarationData> streamDeclarations() {
+        String defaultAction = getAction();
+        SheetRowIterator rows = new SheetRowIterator(DATA_SHEET, 1); // First row is the header
+        Iterator<DeclarationData> declarations = new Iterator<DeclarationData>() {
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public DeclarationData next() {
+                String[] values = rows.next();
+                return columns.toDeclaration(
+                    column -> column < values.length && values[column] != null ? values[column] : "",
+                    defaultAction);
+            }
+        };
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(declarations, Spliterator.ORDERED | Spliterator.NONNULL), false)
+            .onClose(rows::close);
+    }
+
+    private String otherCell(int row, int column) {
+        String[] values = otherRows.get(row);
+        if (values == null) {
+            throw new IllegalStateException("Row " + (row + 1) + " is missing from the " + OTHER_SHEET + " sheet");
+        }
+        return column < values.length && values[column] != null ? values[column] : "";
+    }
+
+    private Map<Integer, String[]> readWholeSheet(String sheetName) {
+        Map<Integer, String[]> rows = new HashMap<>();
+        SheetRowIterator iterator = new SheetRowIterator(sheetName, 0);
+        try {
+            while (iterator.hasNext()) {
+                String[] values = iterator.next();
+                rows.put(iterator.currentRow, values);
+            }
+        } finally {
+            iterator.close();
+        }
+        return rows;
+    }
+
+    private String[] readHeader() {
+        SheetRowIterator iterator = new SheetRowIterator(DATA_SHEET, 0);
+        try {
+            if (!iterator.hasNext()) {
+                return new String[0];
+            }
+            String[] header = iterator.next();
+            if (iterator.currentRow != 0) {
+                return new String[0];
+            }
+            int width = header.length;
+            while (width > 0 && (header[width - 1] == null || header[width - 1].isEmpty())) {
+                width--;
+            }
+            String[] names = Arrays.copyOf(header, width);
+            for (int column = 0; column < width; column++) {
+                if (names[column] == null) names[column] = "";
+            }
+            return names;
+        } finally {
+            iterator.close();
+        }
+    }
+
+    private InputStream openSheet(String sheetName) {
+        try {
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            while (sheets.hasNext()) {
+                InputStream sheet = sheets.next();
+                if (sheetName.equals(sheets.getSheetName())) {
+                    return sheet;
+                }
+                sheet.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (OpenXML4JException e) {
+            throw new IllegalStateException("Unable to read workbook sheets", e);
+        }
+        throw new IllegalStateException("Sheet not found: " + sheetName);
+    }
+
+    private String formatCell(String type, String value, boolean formula, String sheetName, int row, int column) {
+        if (formula && value == null) {
+            return evaluateFormula(sheetName, row, column);
+        }
+        if ("e".equals(type)) {
+            throw FormulaResults.errorResult(new CellReference(row, column).formatAsString(), value);
+        }
+        if (type == null || "n".equals(type)) {
+            return value == null || value.isEmpty() ? "" : NumberFormatter.format(Double.parseDouble(value));
+        }
+        switch (type) {
+            case "s":
+                return sharedStrings.getItemAt(Integer.parseInt(value)).getString();
+            case "inlineStr":
+            case "str":
+                return value == null ? "" : value;
+            case "b":
+                return String.valueOf("1".equals(value));
+            default:
+                return "";
+        }
+    }
+
+    /**
+     * Formulas normally carry their cached result in the sheet XML. For the rare
+     * workbook saved without one, the full workbook is loaded once and evaluated;
+     * that costs the memory the streaming mode otherwise avoids.
+     */
+    private String evaluateFormula(String sheetName, int row, int column) {
+        String reference = new CellReference(row, column).formatAsString();
+        if (evaluator == null) {
+            Logger.info("Workbook has formulas without cached results, loading it to evaluate them");
+            try {
+                evaluationWorkbook = new XSSFWorkbook(pkg);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            evaluator = evaluationWorkbook.getCreationHelper().createFormulaEvaluator();
+        }
+
+        CellValue result;
+        try {
+            result = evaluator.evaluate(evaluationWorkbook.getSheet(sheetName).getRow(row).getCell(column));
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Cannot evaluate formula in " + reference + ": " + e.getMessage(), e);
+        }
+        return FormulaResults.format(result, reference);
+    }
+
+    private static int columnIndex(String cellReference) {
+        int column = 0;
+        for (int i = 0; i < cellReference.length(); i++) {
+            char c = cellReference.charAt(i);
+            if (c < 'A' || c > 'Z') break;
+            column = column * 26 + (c - 'A' + 1);
+        }
+        return column - 1;
+    }
+
+    /**
+     * Pull-parses the rows of one sheet part, yielding the formatted cell values of
+     * every row at or after {@code firstRow} (zero-based).
+     */
+    private class SheetRowIterator implements Iterator<String[]> {
+        private final String sheetName;
+        private final InputStream input;
+        private final XMLStreamReader xml;
+        private final int firstRow;
+        private String invalidCell;
+        private String[] pending;
+        private int currentRow = -1;
+        private boolean finished;
+
+        SheetRowIterator(String sheetName, int firstRow) {
+            this.sheetName = sheetName;
+            this.input = openSheet(sheetName);
+            this.firstRow = firstRow;
+            try {
+                this.xml = xmlInputFactory.createXMLStreamReader(input);
+            } catch (XMLStreamException e) {
+                throw new IllegalStateException("Unable to parse sheet", e);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (pending == null && !finished) {
+                pending = readNextRow();
+                if (pending == null) {
+                    finished = true;
+                    close();
+                }
+            }
+            return pending != null;
+        }
+
+        @Override
+        public String[] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String[] row = pending;
+            pending = null;
+            return row;
+        }
+
+        void close() {
+            try {
+                xml.close();
+                input.close();
+            } catch (XMLStreamException | IOException e) {
+                Logger.error("Failed to close sheet stream: " + e.getMessage());
+            }
+        }
+
+        private String[] readNextRow() {
+            try {
+                while (xml.hasNext()) {
+                    if (xml.next() == XMLStreamConstants.START_ELEMENT && "row".equals(xml.getLocalName())) {
+                        String r = xml.getAttributeValue(null, "r");
+                        int rowIndex = r != null ? Integer.parseInt(r) - 1 : currentRow + 1;
+                        invalidCell = null;
+                        String[] values = readRowCells(rowIndex);
+                        currentRow = rowIndex;
+                        if (rowIndex < firstRow) {
+                            continue;
+                        }
+                        if (invalidCell != null) {
+                            // Same as the in-memory reader: report and skip the row
+                            System.err.println("Error reading row " + rowIndex + ": " + invalidCell);
+                            continue;
+                        }
+                        return values;
+                    }
+                }
+                return null;
+            } catch (XMLStreamException e) {
+                throw new IllegalStateException("Malformed sheet XML after row " + (currentRow + 1), e);
+            }
+        }
+
+        private String[] readRowCells(int rowIndex) throws XMLStreamException {
+            String[] values = new String[ROW_WIDTH];
+            int nextColumn = 0;
+            while (xml.hasNext()) {
+                int event = xml.next();
+                if (event == XMLStreamConstants.END_ELEMENT && "row".equals(xml.getLocalName())) {
+                    break;
+                }
+                if (event == XMLStreamConstants.START_ELEMENT && "c".equals(xml.getLocalName())) {
+                    String ref = xml.getAttributeValue(null, "r");
+                    int column = ref != null ? columnIndex(ref) : nextColumn;
+                    String cellValue = readCell(xml.getAttributeValue(null, "t"), rowIndex, column);
+                    if (column >= values.length) {
+                        values = Arrays.copyOf(values, column + 1);
+                    }
+                    values[column] = cellValue;
+                    nextColumn = column + 1;
+                }
+            }
+            return values;
+        }
+
+        private String readCell(String type, int rowIndex, int column) throws XMLStreamException {
+            String value = null;
+            boolean formula = false;
+            StringBuilder inlineText = null;
+            while (xml.hasNext()) {
+                int event = xml.next();
+                if (event == XMLStreamConstants.END_ELEMENT && "c".equals(xml.getLocalName())) {
+                    break;
+                }
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    switch (xml.getLocalName()) {
+                        case "v":
+                            value = xml.getElementText();
+                            break;
+                        case "f":
+                            formula = true;
+                            xml.getElementText();
+                            break;
+                        case "t":
+                            if (inlineText == null) inlineText = new StringBuilder();
+                            inlineText.append(xml.getElementText());
+                            break;
+                        default:
+                            break;
+                    }
+                }
+            }
+            if ("inlineStr".equals(type)) {
+                value = inlineText == null ? "" : inlineText.toString();
+            }
+            try {
+                return formatCell(type, value, formula, sheetName, rowIndex, column);
+            } catch (RuntimeException e) {
+                invalidCell = e.getMessage();
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        pkg.revert();
+    }
+}